@@ -2,11 +2,20 @@ package com.stockmarket;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class StockMarketNewsApiApplication {
 
+    // Idle timeout in seconds for pooled outbound HTTP connections. The JDK reads it once, when the first HttpClient
+    // is created, so it is set here before anything starts; override with -Djdk.httpclient.keepalive.timeout=<seconds>.
+    private static final String OUTBOUND_KEEP_ALIVE_SECONDS = "300";
+
     public static void main(String[] args) {
+        if (System.getProperty("jdk.httpclient.keepalive.timeout") == null) {
+            System.setProperty("jdk.httpclient.keepalive.timeout", OUTBOUND_KEEP_ALIVE_SECONDS);
+        }
         SpringApplication.run(StockMarketNewsApiApplication.class, args);
     }
 }
\ No newline at end of file
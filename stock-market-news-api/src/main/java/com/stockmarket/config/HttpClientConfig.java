@@ -0,0 +1,47 @@
+package com.stockmarket.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class HttpClientConfig {
+    
+    // One JDK HttpClient for all outbound calls: pooled keep-alive connections per host (idle timeout set at launch,
+    // see StockMarketNewsApiApplication), HTTP/2 negotiated via ALPN (falls back to HTTP/1.1) and a shared SSLContext
+    // for TLS session reuse
+    @Bean
+    public HttpClient outboundHttpClient(@Value("${outbound-http.connect-timeout:3s}") Duration connectTimeout) {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                // Follows redirects like the HttpURLConnection factory it replaced, plus HTTP to HTTPS; never HTTPS to HTTP
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+    
+    // Blocking provider calls run here so request threads can race and cancel them
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService marketDataProviderExecutor() {
+        return Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "quote-provider");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    // News feeds are fetched in parallel here; fetches that overrun their deadline are interrupted
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService newsFeedExecutor() {
+        return Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "news-feed");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,52 @@
+package com.stockmarket.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// RestTemplates per upstream provider, all sharing the pooled outbound HttpClient
+@Component
+public class ProviderRestTemplates {
+    
+    private final HttpClient httpClient;
+    private final Environment environment;
+    private final RecordReplayInterceptor recordReplayInterceptor;
+    private final Map<String, RestTemplate> restTemplates = new ConcurrentHashMap<>();
+    
+    @Value("${outbound-http.read-timeout:5s}")
+    private Duration defaultReadTimeout;
+    
+    public ProviderRestTemplates(HttpClient httpClient, Environment environment, RecordReplayInterceptor recordReplayInterceptor) {
+        this.httpClient = httpClient;
+        this.environment = environment;
+        this.recordReplayInterceptor = recordReplayInterceptor;
+    }
+    
+    public RestTemplate forProvider(String provider) {
+        return restTemplates.computeIfAbsent(provider, this::createRestTemplate);
+    }
+    
+    public Duration getReadTimeout(String provider) {
+        // Per-provider deadline, e.g. outbound-http.providers.yahoo.read-timeout=2s
+        return environment.getProperty("outbound-http.providers." + provider + ".read-timeout",
+                Duration.class, defaultReadTimeout);
+    }
+    
+    private RestTemplate createRestTemplate(String provider) {
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(getReadTimeout(provider));
+        RestTemplate restTemplate = new RestTemplate(requestFactory);
+        // Only installed when recording or replaying, so the normal path stays unbuffered
+        if (recordReplayInterceptor.isEnabled()) {
+            restTemplate.getInterceptors().add(recordReplayInterceptor);
+        }
+        return restTemplate;
+    }
+}
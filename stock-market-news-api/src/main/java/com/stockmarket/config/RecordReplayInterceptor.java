@@ -0,0 +1,198 @@
+package com.stockmarket.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Records raw provider responses to disk, or replays them with simulated latency for offline load tests.
+// outbound-http.recording.mode: off (default) | record | replay
+@Component
+public class RecordReplayInterceptor implements ClientHttpRequestInterceptor {
+    
+    private static final Logger logger = LoggerFactory.getLogger(RecordReplayInterceptor.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    
+    public enum Mode { OFF, RECORD, REPLAY }
+    
+    private final Mode mode;
+    private final Path directory;
+    private final Duration replayLatency;
+    private final Duration replayJitter;
+    
+    public RecordReplayInterceptor(
+            @Value("${outbound-http.recording.mode:off}") String mode,
+            @Value("${outbound-http.recording.directory:recordings}") Path directory,
+            @Value("${outbound-http.recording.replay-latency:150ms}") Duration replayLatency,
+            @Value("${outbound-http.recording.replay-jitter:50ms}") Duration replayJitter) {
+        this.mode = Mode.valueOf(mode.trim().toUpperCase());
+        this.directory = directory;
+        this.replayLatency = replayLatency;
+        this.replayJitter = replayJitter;
+        if (this.mode != Mode.OFF) {
+            logger.info("📼 Outbound HTTP {} mode using {}", this.mode, directory.toAbsolutePath());
+        }
+    }
+    
+    public boolean isEnabled() {
+        return mode != Mode.OFF;
+    }
+    
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        String url = redact(request.getURI().toString());
+        String key = key(request.getMethod().name() + " " + url);
+        
+        if (mode == Mode.REPLAY) {
+            return replay(key, url);
+        }
+        
+        ClientHttpResponse response = execution.execute(request, body);
+        // Only full successful answers are recorded: a 304 just means the caller's copy is current, and an error
+        // must never replace a good recording of the same request
+        if (mode != Mode.RECORD || !response.getStatusCode().is2xxSuccessful()) {
+            return response;
+        }
+        
+        // Buffer the body so it can be both saved and handed back to the caller
+        byte[] responseBody;
+        try (response) {
+            responseBody = response.getBody().readAllBytes();
+        }
+        RecordedResponse recorded = new RecordedResponse(response.getStatusCode(), response.getHeaders(), responseBody);
+        save(key, request.getMethod().name(), url, recorded);
+        return recorded;
+    }
+    
+    private ClientHttpResponse replay(String key, String url) throws IOException {
+        simulateLatency();
+        
+        Path metaFile = directory.resolve(key + ".json");
+        Path bodyFile = directory.resolve(key + ".body");
+        if (!Files.exists(metaFile) || !Files.exists(bodyFile)) {
+            // Unrecorded calls fail like an unavailable upstream so the normal fallbacks run
+            logger.debug("📼 No recording for {}", url);
+            return new RecordedResponse(HttpStatus.SERVICE_UNAVAILABLE, new HttpHeaders(), new byte[0]);
+        }
+        
+        Map<?, ?> meta = objectMapper.readValue(metaFile.toFile(), Map.class);
+        HttpHeaders headers = new HttpHeaders();
+        Object contentType = meta.get("contentType");
+        if (contentType != null) {
+            headers.set(HttpHeaders.CONTENT_TYPE, contentType.toString());
+        }
+        // The body is stored as received, so it is only decodable with its original encoding
+        Object contentEncoding = meta.get("contentEncoding");
+        if (contentEncoding != null) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, contentEncoding.toString());
+        }
+        int status = ((Number) meta.get("status")).intValue();
+        return new RecordedResponse(HttpStatusCode.valueOf(status), headers, Files.readAllBytes(bodyFile));
+    }
+    
+    private void save(String key, String method, String url, RecordedResponse response) {
+        try {
+            Files.createDirectories(directory);
+            Map<String, Object> meta = new LinkedHashMap<>();
+            meta.put("method", method);
+            meta.put("url", url);
+            meta.put("status", response.getStatusCode().value());
+            meta.put("contentType", response.getHeaders().getFirst(HttpHeaders.CONTENT_TYPE));
+            meta.put("contentEncoding", response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+            meta.put("recordedAt", System.currentTimeMillis());
+            Files.write(directory.resolve(key + ".body"), response.body);
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(directory.resolve(key + ".json").toFile(), meta);
+            logger.debug("📼 Recorded {}", url);
+        } catch (IOException e) {
+            logger.warn("⚠️ Could not record response for {}: {}", url, e.getMessage());
+        }
+    }
+    
+    private void simulateLatency() throws IOException {
+        long jitter = replayJitter.toMillis();
+        long delay = replayLatency.toMillis() + (jitter > 0 ? ThreadLocalRandom.current().nextLong(-jitter, jitter + 1) : 0);
+        if (delay <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Replay interrupted", e);
+        }
+    }
+    
+    // API keys are kept out of recordings so one capture replays for any key
+    private static String redact(String url) {
+        return url.replaceAll("(?i)(api_?key=)[^&]*", "$1REDACTED");
+    }
+    
+    private static String key(String request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(request.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private static final class RecordedResponse implements ClientHttpResponse {
+        
+        private final HttpStatusCode status;
+        private final HttpHeaders headers;
+        private final byte[] body;
+        
+        RecordedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+        }
+        
+        @Override
+        public HttpStatusCode getStatusCode() {
+            return status;
+        }
+        
+        @Override
+        public String getStatusText() {
+            HttpStatus known = HttpStatus.resolve(status.value());
+            return known != null ? known.getReasonPhrase() : "";
+        }
+        
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+        
+        @Override
+        public InputStream getBody() {
+            return new ByteArrayInputStream(body);
+        }
+        
+        @Override
+        public void close() {
+        }
+    }
+}
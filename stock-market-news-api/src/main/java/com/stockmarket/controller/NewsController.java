@@ -7,6 +7,8 @@ import com.stockmarket.service.IndianMarketFactorsService;
 import com.stockmarket.service.AdvancedAnalyticsService;
 import com.stockmarket.service.PortfolioAnalyticsService;
 import com.stockmarket.service.LiveMarketDataService;
+import com.stockmarket.service.NewsSearchResult;
+import com.stockmarket.service.UnknownSymbolException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -111,6 +113,16 @@ public class NewsController {
         try {
             Map<String, Object> stockData = realTimeStockDataService.getRealTimeStockData(symbol.toUpperCase());
             return ResponseEntity.ok(stockData);
+        } catch (UnknownSymbolException e) {
+            logger.debug("🚫 Unknown stock symbol {}: {}", symbol, e.getMessage());
+            
+            Map<String, Object> errorResponse = Map.of(
+                "error", "Unknown stock symbol",
+                "symbol", symbol,
+                "message", e.getMessage(),
+                "timestamp", System.currentTimeMillis()
+            );
+            return ResponseEntity.status(404).body(errorResponse);
         } catch (Exception e) {
             logger.error("❌ Error getting stock data for {}: {}", symbol, e.getMessage());
             
@@ -164,7 +176,73 @@ public class NewsController {
         logger.debug("📰 REAL NEWS: Returning {} news items from actual platforms", news.size());
         return ResponseEntity.ok(response);
     }
-    
+
+    @GetMapping("/news/search")
+    public ResponseEntity<Map<String, Object>> searchNews(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String symbol,
+            @RequestParam(required = false) String source,
+            @RequestParam(required = false) String sentiment,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) Integer limit) {
+        logger.debug("🔎 Searching news: q={} symbol={} source={} sentiment={}", q, symbol, source, sentiment);
+
+        long startNanos = System.nanoTime();
+        try {
+            NewsSearchResult result = stockNewsService.searchNews(q, symbol, source, sentiment, from, to, limit);
+            Map<String, Object> response = Map.of(
+                "total", result.total(),
+                "news", result.items(),
+                "tookMicros", (System.nanoTime() - startNanos) / 1000,
+                "timestamp", System.currentTimeMillis()
+            );
+            return ResponseEntity.ok(response);
+        } catch (UnknownSymbolException e) {
+            logger.debug("🚫 Unknown news search symbol {}: {}", symbol, e.getMessage());
+
+            Map<String, Object> errorResponse = Map.of(
+                "error", "Unknown stock symbol",
+                "symbol", symbol,
+                "message", e.getMessage(),
+                "timestamp", System.currentTimeMillis()
+            );
+            return ResponseEntity.status(404).body(errorResponse);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> errorResponse = Map.of(
+                "error", "Invalid search parameter",
+                "message", e.getMessage(),
+                "timestamp", System.currentTimeMillis()
+            );
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+    }
+
+    @GetMapping("/news/{symbol}")
+    public ResponseEntity<Map<String, Object>> getStockNewsForSymbol(@PathVariable String symbol) {
+        logger.debug("📈 Getting news linked to {}", symbol);
+
+        try {
+            List<Map<String, Object>> news = stockNewsService.getStockNews(symbol);
+            Map<String, Object> response = Map.of(
+                "symbol", symbol.toUpperCase(),
+                "news", news,
+                "timestamp", System.currentTimeMillis()
+            );
+            return ResponseEntity.ok(response);
+        } catch (UnknownSymbolException e) {
+            logger.debug("🚫 Unknown news symbol {}: {}", symbol, e.getMessage());
+
+            Map<String, Object> errorResponse = Map.of(
+                "error", "Unknown stock symbol",
+                "symbol", symbol,
+                "message", e.getMessage(),
+                "timestamp", System.currentTimeMillis()
+            );
+            return ResponseEntity.status(404).body(errorResponse);
+        }
+    }
+
     private List<Map<String, Object>> createNewsWithWorkingURLs() {
         long currentTimeMillis = System.currentTimeMillis();
         String currentTime = java.time.LocalDateTime.now().format(java.time.format.DateTimeFormatter.ofPattern("HH:mm:ss"));
@@ -263,11 +341,10 @@ public class NewsController {
         // Check if recommendations are using real-time data
         boolean hasRealTimeData = recommendations.stream().anyMatch(rec -> {
             try {
-                // Test if we can get real-time data for any symbol
+                // Reuse the request's market snapshot instead of fetching again
                 String symbol = (String) rec.get("symbol");
                 if (symbol != null) {
-                    Map<String, Object> realTimeData = realTimeStockDataService.getRealTimeStockData(symbol);
-                    return "REAL_TIME_API".equals(realTimeData.get("dataSource"));
+                    return liveMarketDataService.getQuote(symbol).isRealTime();
                 }
             } catch (Exception e) {
                 // Ignore errors
@@ -305,11 +382,10 @@ public class NewsController {
         // Check if recommendations are using real-time data
         boolean hasRealTimeData = recommendations.stream().anyMatch(rec -> {
             try {
-                // Test if we can get real-time data for any symbol
+                // Reuse the request's market snapshot instead of fetching again
                 String symbol = (String) rec.get("symbol");
                 if (symbol != null) {
-                    Map<String, Object> realTimeData = realTimeStockDataService.getRealTimeStockData(symbol);
-                    return "REAL_TIME_API".equals(realTimeData.get("dataSource"));
+                    return liveMarketDataService.getQuote(symbol).isRealTime();
                 }
             } catch (Exception e) {
                 // Ignore errors
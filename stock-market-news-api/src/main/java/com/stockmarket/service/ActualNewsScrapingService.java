@@ -1,7 +1,9 @@
 package com.stockmarket.service;
 
+import com.stockmarket.config.ProviderRestTemplates;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
@@ -11,7 +13,6 @@ import java.util.regex.Matcher;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.concurrent.ConcurrentHashMap;
-import java.time.Duration;
 
 @Service
 public class ActualNewsScrapingService {
@@ -21,11 +22,18 @@ public class ActualNewsScrapingService {
     
     // Cache for scraped news
     private final Map<String, List<Map<String, Object>>> newsCache = new ConcurrentHashMap<>();
-    private LocalDateTime lastScrapeTime = LocalDateTime.MIN;
-    private static final Duration CACHE_DURATION = Duration.ofSeconds(1); // 1-second cache to force refresh
+    private volatile long lastScrapeTime = 0L;
+
+    // Cache TTL follows the NSE session: short while trading, long once the market is closed
+    @Autowired
+    private MarketSessionService marketSessionService;
+    
+    // Relevance, symbols and sentiment from the shared keyword automaton
+    @Autowired
+    private HeadlineClassifier headlineClassifier;
     
-    public ActualNewsScrapingService() {
-        this.restTemplate = new RestTemplate();
+    public ActualNewsScrapingService(ProviderRestTemplates restTemplates) {
+        this.restTemplate = restTemplates.forProvider("newsapi");
     }
     
     public List<Map<String, Object>> scrapeLatestNews() {
@@ -65,7 +73,7 @@ public class ActualNewsScrapingService {
         
         // Cache the results
         newsCache.put("scraped", allNews);
-        lastScrapeTime = LocalDateTime.now();
+        lastScrapeTime = System.currentTimeMillis();
         
         return allNews;
     }
@@ -277,12 +285,13 @@ public class ActualNewsScrapingService {
             String title = (String) article.get("title");
             String url = (String) article.get("url");
             
-            if (title != null && isStockRelated(title)) {
+            HeadlineClassification classification = title != null ? headlineClassifier.classify(title) : null;
+            if (classification != null && classification.stockRelated()) {
                 processedNews.add(createNewsItem(
                     "newsapi-" + i,
-                    extractSymbolFromTitle(title),
+                    classification.primarySymbol(),
                     title,
-                    analyzeSentiment(title),
+                    classification.sentiment(),
                     "NewsAPI",
                     url != null ? url : "https://newsapi.org"
                 ));
@@ -329,75 +338,12 @@ public class ActualNewsScrapingService {
         return newsItem;
     }
     
-    private boolean isStockRelated(String title) {
-        String titleLower = title.toLowerCase();
-        String[] keywords = {"stock", "market", "nifty", "sensex", "share", "equity", "trading", 
-                           "investment", "bse", "nse", "rupee", "fii", "dii"};
-        
-        for (String keyword : keywords) {
-            if (titleLower.contains(keyword)) {
-                return true;
-            }
-        }
-        
-        return false;
-    }
-    
-    private String extractSymbolFromTitle(String title) {
-        String titleUpper = title.toUpperCase();
-        String[] stocks = {"RELIANCE", "TCS", "HDFCBANK", "INFY", "ITC", "BHARTIARTL", "ADANIGREEN"};
-        
-        for (String stock : stocks) {
-            if (titleUpper.contains(stock)) {
-                return stock;
-            }
-        }
-        
-        if (titleUpper.contains("NIFTY")) return "NIFTY50";
-        if (titleUpper.contains("SENSEX")) return "SENSEX";
-        
-        return "MARKET";
-    }
-    
-    private String analyzeSentiment(String title) {
-        String titleLower = title.toLowerCase();
-        
-        String[] positiveWords = {"gain", "rise", "up", "high", "strong", "beat", "win", "growth", 
-                                "positive", "rally", "surge", "jump", "soar"};
-        String[] negativeWords = {"fall", "drop", "down", "low", "weak", "miss", "loss", "decline", 
-                                "negative", "crash", "plunge", "tumble"};
-        
-        int positiveScore = 0;
-        int negativeScore = 0;
-        
-        for (String word : positiveWords) {
-            if (titleLower.contains(word)) positiveScore++;
-        }
-        
-        for (String word : negativeWords) {
-            if (titleLower.contains(word)) negativeScore++;
-        }
-        
-        if (positiveScore > negativeScore) return "positive";
-        if (negativeScore > positiveScore) return "negative";
-        return "neutral";
-    }
-    
     private boolean isMarketOpen() {
-        LocalDateTime now = LocalDateTime.now();
-        int hour = now.getHour();
-        int minute = now.getMinute();
-        
-        // Indian market hours: 9:15 AM to 3:30 PM
-        int currentMinutes = hour * 60 + minute;
-        int marketOpen = 9 * 60 + 15;  // 9:15 AM
-        int marketClose = 15 * 60 + 30; // 3:30 PM
-        
-        return currentMinutes >= marketOpen && currentMinutes <= marketClose;
+        return marketSessionService.getCurrentSession() == MarketSessionService.Session.REGULAR;
     }
     
     private boolean isDataFresh() {
-        return Duration.between(lastScrapeTime, LocalDateTime.now()).compareTo(CACHE_DURATION) < 0;
+        return marketSessionService.isNewsFresh(lastScrapeTime);
     }
     
     private List<Map<String, Object>> getTimestampedFallbackNews() {
@@ -2,6 +2,7 @@ package com.stockmarket.service;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
@@ -11,6 +12,9 @@ public class AdvancedAnalyticsService {
     
     private static final Logger logger = LoggerFactory.getLogger(AdvancedAnalyticsService.class);
     
+    @Autowired
+    private TickStore tickStore;
+    
     public Map<String, Object> getAdvancedMetrics(String symbol, double currentPrice, long volume) {
         logger.debug("📊 Calculating advanced financial metrics for {}", symbol);
         
@@ -201,6 +205,12 @@ public class AdvancedAnalyticsService {
     }
     
     private double calculateVWAP(String symbol) {
+        // Real VWAP from today's recorded ticks once enough volume has traded
+        double vwap = tickStore.getVwap(symbol);
+        if (!Double.isNaN(vwap)) {
+            return vwap;
+        }
+        
         // Simulate VWAP calculation
         return switch (symbol) {
             case "RELIANCE" -> 2755.50;
@@ -0,0 +1,103 @@
+package com.stockmarket.service;
+
+import com.stockmarket.config.ProviderRestTemplates;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+// Alpha Vantage GLOBAL_QUOTE (free tier: 5 calls/minute, 500/day), one symbol per call
+@Component
+public class AlphaVantageProvider implements MarketDataProvider {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AlphaVantageProvider.class);
+    
+    private final RestTemplate restTemplate;
+    
+    @Autowired
+    @Qualifier("marketDataProviderExecutor")
+    private ExecutorService executor;
+    
+    @Autowired
+    private SymbolMaster symbolMaster;
+    
+    @Autowired
+    private ApiRateLimiter rateLimiter;
+    
+    // Note: Add your free API key from https://www.alphavantage.co/support/#api-key
+    @Value("${alphavantage.api.key:demo}")
+    private String apiKey;
+    
+    @Value("${ratelimit.providers.alphavantage.per-minute:5}")
+    private int requestsPerMinute;
+    
+    @Value("${ratelimit.providers.alphavantage.per-day:500}")
+    private int requestsPerDay;
+    
+    @Value("${marketdata.providers.alphavantage.priority:20}")
+    private int priority;
+    
+    @Value("${marketdata.providers.alphavantage.enabled:true}")
+    private boolean enabled;
+    
+    public AlphaVantageProvider(ProviderRestTemplates restTemplates) {
+        this.restTemplate = restTemplates.forProvider("alphavantage");
+    }
+    
+    @Override
+    public String getKey() {
+        return "alphavantage";
+    }
+    
+    @Override
+    public String getName() {
+        return "Alpha Vantage";
+    }
+    
+    @Override
+    public int getPriority() {
+        return priority;
+    }
+    
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    @Override
+    public ProviderCapabilities getCapabilities() {
+        return new ProviderCapabilities(1, requestsPerMinute, requestsPerDay, ProviderCapabilities.FULL_QUOTE_FIELDS);
+    }
+    
+    // The key's quota is shared with the recommendation and news services
+    @Override
+    public CompletableFuture<Boolean> acquirePermit(ApiRateLimiter.Priority priority, Duration maxWait) {
+        if (maxWait.isZero()) {
+            return CompletableFuture.completedFuture(rateLimiter.tryAcquire(getKey(), apiKey, priority));
+        }
+        return rateLimiter.acquire(getKey(), apiKey, priority, maxWait);
+    }
+    
+    @Override
+    public CompletableFuture<Quote> fetchQuote(String symbol) {
+        return MarketDataProvider.supplyInterruptibly(() -> {
+            logger.debug("📡 Trying Alpha Vantage API for {}", symbol);
+            
+            String url = String.format(
+                "https://www.alphavantage.co/query?function=GLOBAL_QUOTE&symbol=%s&apikey=%s",
+                symbolMaster.alphaVantageTicker(symbol), apiKey
+            );
+            
+            return restTemplate.execute(url, HttpMethod.GET, null,
+                response -> QuoteResponseParser.parseAlphaVantageQuote(response.getBody(), symbol));
+        }, executor);
+    }
+}
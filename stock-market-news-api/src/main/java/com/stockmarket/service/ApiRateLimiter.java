@@ -0,0 +1,198 @@
+package com.stockmarket.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Shared, non-blocking quota enforcement per provider API key (per-minute and per-day token buckets)
+@Component
+public class ApiRateLimiter {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ApiRateLimiter.class);
+    
+    // Lower priorities leave part of the per-minute budget for user-facing calls
+    public enum Priority {
+        HIGH(0.0), NORMAL(0.2), LOW(0.5);
+        
+        private final double reservedShare;
+        
+        Priority(double reservedShare) {
+            this.reservedShare = reservedShare;
+        }
+    }
+    
+    @Autowired
+    private Environment environment;
+    
+    private final Map<String, Quota> quotas = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final ScheduledExecutorService dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "rate-limiter");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    // Takes a token immediately if the quota allows it; never blocks the calling thread
+    public boolean tryAcquire(String provider, String apiKey, Priority priority) {
+        Quota quota = quotaFor(provider, apiKey);
+        synchronized (quota) {
+            if (quota.waiters.isEmpty() || priority == Priority.HIGH) {
+                if (quota.tryTake(priority)) {
+                    return true;
+                }
+            }
+        }
+        logger.debug("🚦 {} quota exhausted for {} priority", provider, priority);
+        return false;
+    }
+    
+    // Queues the request by priority; completes with true when a token is granted or false once the deadline passes
+    public CompletableFuture<Boolean> acquire(String provider, String apiKey, Priority priority, Duration maxWait) {
+        Quota quota = quotaFor(provider, apiKey);
+        Waiter waiter = new Waiter(priority, System.nanoTime() + maxWait.toNanos(), sequence.incrementAndGet());
+        synchronized (quota) {
+            if (quota.waiters.isEmpty() && quota.tryTake(priority)) {
+                waiter.result.complete(true);
+                return waiter.result;
+            }
+            quota.waiters.add(waiter);
+        }
+        dispatch(quota);
+        return waiter.result;
+    }
+    
+    public Map<String, Object> getStatus(String provider, String apiKey) {
+        Quota quota = quotaFor(provider, apiKey);
+        synchronized (quota) {
+            quota.refill(System.nanoTime());
+            return Map.of(
+                "provider", provider,
+                "minuteTokens", Math.floor(quota.minuteTokens),
+                "dayTokens", Math.floor(quota.dayTokens),
+                "queued", quota.waiters.size()
+            );
+        }
+    }
+    
+    private Quota quotaFor(String provider, String apiKey) {
+        return quotas.computeIfAbsent(provider + ":" + apiKey, key -> new Quota(
+            environment.getProperty("ratelimit.providers." + provider + ".per-minute", Integer.class, Integer.MAX_VALUE),
+            environment.getProperty("ratelimit.providers." + provider + ".per-day", Integer.class, Integer.MAX_VALUE)));
+    }
+    
+    // Grants queued waiters in priority order, expires overdue ones and reschedules itself for the next token
+    private void dispatch(Quota quota) {
+        long nextRunNanos;
+        synchronized (quota) {
+            long now = System.nanoTime();
+            while (!quota.waiters.isEmpty()) {
+                Waiter head = quota.waiters.peek();
+                if (head.result.isDone()) {
+                    quota.waiters.poll();
+                } else if (head.deadlineNanos <= now) {
+                    quota.waiters.poll();
+                    head.result.complete(false);
+                } else if (quota.tryTake(head.priority)) {
+                    quota.waiters.poll();
+                    head.result.complete(true);
+                } else {
+                    break;
+                }
+            }
+            if (quota.waiters.isEmpty() || quota.dispatchScheduled) {
+                return;
+            }
+            long earliestDeadline = quota.waiters.stream().mapToLong(waiter -> waiter.deadlineNanos).min().orElse(now);
+            nextRunNanos = Math.max(0, Math.min(quota.nanosUntilToken(quota.waiters.peek().priority), earliestDeadline - now));
+            quota.dispatchScheduled = true;
+        }
+        dispatcher.schedule(() -> {
+            synchronized (quota) {
+                quota.dispatchScheduled = false;
+            }
+            dispatch(quota);
+        }, nextRunNanos, TimeUnit.NANOSECONDS);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+    }
+    
+    private static class Waiter {
+        final Priority priority;
+        final long deadlineNanos;
+        final long sequence;
+        final CompletableFuture<Boolean> result = new CompletableFuture<>();
+        
+        Waiter(Priority priority, long deadlineNanos, long sequence) {
+            this.priority = priority;
+            this.deadlineNanos = deadlineNanos;
+            this.sequence = sequence;
+        }
+    }
+    
+    private static class Quota {
+        private static final double MINUTE_NANOS = TimeUnit.MINUTES.toNanos(1);
+        private static final double DAY_NANOS = TimeUnit.DAYS.toNanos(1);
+        
+        final int perMinute;
+        final int perDay;
+        double minuteTokens;
+        double dayTokens;
+        long lastRefill = System.nanoTime();
+        boolean dispatchScheduled;
+        final PriorityQueue<Waiter> waiters = new PriorityQueue<>(Comparator
+            .comparing((Waiter waiter) -> waiter.priority)
+            .thenComparingLong(waiter -> waiter.deadlineNanos)
+            .thenComparingLong(waiter -> waiter.sequence));
+        
+        Quota(int perMinute, int perDay) {
+            this.perMinute = perMinute;
+            this.perDay = perDay;
+            this.minuteTokens = perMinute;
+            this.dayTokens = perDay;
+        }
+        
+        void refill(long now) {
+            long elapsed = now - lastRefill;
+            lastRefill = now;
+            minuteTokens = Math.min(perMinute, minuteTokens + elapsed * (perMinute / MINUTE_NANOS));
+            dayTokens = Math.min(perDay, dayTokens + elapsed * (perDay / DAY_NANOS));
+        }
+        
+        boolean tryTake(Priority priority) {
+            refill(System.nanoTime());
+            if (minuteTokens - perMinute * priority.reservedShare >= 1.0
+                    && dayTokens - perDay * priority.reservedShare >= 1.0) {
+                minuteTokens -= 1.0;
+                dayTokens -= 1.0;
+                return true;
+            }
+            return false;
+        }
+        
+        long nanosUntilToken(Priority priority) {
+            double minuteNeeded = 1.0 + perMinute * priority.reservedShare - minuteTokens;
+            double dayNeeded = 1.0 + perDay * priority.reservedShare - dayTokens;
+            double minuteWait = Math.max(0, minuteNeeded) * MINUTE_NANOS / perMinute;
+            double dayWait = Math.max(0, dayNeeded) * DAY_NANOS / perDay;
+            // Floor of 1ms keeps rounding error from spinning the dispatcher
+            return Math.max(TimeUnit.MILLISECONDS.toNanos(1), (long) Math.ceil(Math.max(minuteWait, dayWait)));
+        }
+    }
+}
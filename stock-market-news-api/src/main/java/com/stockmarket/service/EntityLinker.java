@@ -0,0 +1,246 @@
+package com.stockmarket.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+// Links headlines to equity master companies: every symbol, company name, short name and alias is compiled into one
+// keyword automaton, so tagging an article is a single pass whatever the size of the universe. Names and aliases match
+// in any case, except those the master marks as common words, which follow HeadlineClassifier.isCompanyMention.
+@Component
+public class EntityLinker {
+
+    private static final Logger logger = LoggerFactory.getLogger(EntityLinker.class);
+
+    // Corporate suffixes dropped to get the short name headlines actually use ("Tata Steel Ltd" -> "Tata Steel")
+    private static final List<String> NAME_SUFFIXES = List.of(" LIMITED", " LTD.", " LTD", " COMPANY", " CORPORATION");
+
+    // Name words too common to tell companies apart
+    private static final Set<String> GENERIC_WORDS = Set.of("LTD", "LIMITED", "COMPANY", "CORPORATION", "OF", "AND", "THE", "INDIA", "&");
+
+    // A surface form and the companies it may refer to; context surfaces only vote for their companies.
+    // Common-word surfaces ("RELIANCE") are also dictionary words, so they are matched with case rules.
+    private record Surface(String form, List<SymbolInfo> candidates, double confidence, boolean context, boolean commonWord) {
+    }
+
+    private record Mention(Surface surface, int start, int end) {
+    }
+
+    @Autowired
+    private SymbolMaster symbolMaster;
+
+    @Autowired
+    private HeadlineClassifier headlineClassifier;
+
+    private KeywordAutomaton<Surface> automaton;
+
+    @PostConstruct
+    void load() {
+        // Surface form -> candidate companies in master order, and the most specific kind it was seen as
+        Map<String, List<SymbolInfo>> candidatesBySurface = new LinkedHashMap<>();
+        Map<String, Double> confidenceBySurface = new HashMap<>();
+        for (SymbolInfo info : symbolMaster.getAll()) {
+            String name = info.name().toUpperCase();
+            addSurface(candidatesBySurface, confidenceBySurface, name, info, 1.0);
+            String shortName = shortName(name);
+            addSurface(candidatesBySurface, confidenceBySurface, shortName, info, 1.0);
+            addSurface(candidatesBySurface, confidenceBySurface, shortName.replace(" & ", " AND "), info, 1.0);
+            addSurface(candidatesBySurface, confidenceBySurface, info.symbol(), info, aliasConfidence(info.symbol()));
+            for (String alias : info.aliases()) {
+                addSurface(candidatesBySurface, confidenceBySurface, alias, info, aliasConfidence(alias));
+            }
+        }
+
+        KeywordAutomaton.Builder<Surface> builder = KeywordAutomaton.builder();
+        Map<String, Set<SymbolInfo>> contextWords = new LinkedHashMap<>();
+        int ambiguous = 0;
+        for (Map.Entry<String, List<SymbolInfo>> entry : candidatesBySurface.entrySet()) {
+            List<SymbolInfo> candidates = List.copyOf(entry.getValue());
+            boolean commonWord = candidates.stream().anyMatch(candidate -> candidate.isCommonWord(entry.getKey()));
+            builder.add(entry.getKey(), new Surface(entry.getKey(), candidates, confidenceBySurface.get(entry.getKey()), false, commonWord));
+            if (candidates.size() > 1) {
+                ambiguous++;
+                // Words that set one candidate apart ("LIFE", "INSURANCE" for HDFC Life) vote for it when present
+                Set<String> shared = Set.of(entry.getKey().split(" "));
+                for (SymbolInfo candidate : candidates) {
+                    for (String word : contextWordsOf(candidate)) {
+                        if (!shared.contains(word)) {
+                            contextWords.computeIfAbsent(word, key -> new LinkedHashSet<>()).add(candidate);
+                        }
+                    }
+                }
+            }
+        }
+        for (Map.Entry<String, Set<SymbolInfo>> entry : contextWords.entrySet()) {
+            builder.add(entry.getKey(), new Surface(entry.getKey(), List.copyOf(entry.getValue()), 0.0, true, false));
+        }
+
+        this.automaton = builder.build();
+        logger.info("🔗 Compiled {} company surface forms ({} ambiguous) and {} context words for entity linking",
+            candidatesBySurface.size(), ambiguous, contextWords.size());
+    }
+
+    // Companies mentioned in the headline, most confident first; the body only supplies disambiguating context
+    public List<LinkedEntity> link(String headline, String body) {
+        if (headline == null || headline.isEmpty()) {
+            return List.of();
+        }
+        List<Mention> mentions = new ArrayList<>(4);
+        List<Surface> context = new ArrayList<>(4);
+        Boolean[] marketContext = new Boolean[1];
+        automaton.scan(headline, (surface, start, end) -> {
+            if (!isWholeWord(headline, start, end)) {
+                return;
+            }
+            if (surface.context()) {
+                context.add(surface);
+            } else if (!surface.commonWord() || HeadlineClassifier.isCompanyMention(headline, surface.form(), start, end, () -> {
+                if (marketContext[0] == null) {
+                    marketContext[0] = headlineClassifier.hasMarketContext(headline);
+                }
+                return marketContext[0];
+            })) {
+                mentions.add(new Mention(surface, start, end));
+            }
+        });
+        if (mentions.isEmpty()) {
+            return List.of();
+        }
+        if (body != null) {
+            automaton.scan(body, (surface, start, end) -> {
+                if (surface.context() && isWholeWord(body, start, end)) {
+                    context.add(surface);
+                }
+            });
+        }
+
+        // Leftmost-longest: "HDFC BANK" wins over the "HDFC" inside it
+        mentions.sort((a, b) -> a.start() != b.start() ? Integer.compare(a.start(), b.start()) : Integer.compare(b.end(), a.end()));
+        List<Mention> selected = new ArrayList<>(mentions.size());
+        int coveredUntil = 0;
+        for (Mention mention : mentions) {
+            if (mention.start() >= coveredUntil) {
+                selected.add(mention);
+                coveredUntil = mention.end();
+            }
+        }
+
+        // Unambiguous mentions first, so they can in turn disambiguate the rest ("HDFC Life ... HDFC")
+        List<LinkedEntity> entities = new ArrayList<>(selected.size());
+        for (Mention mention : selected) {
+            if (mention.surface().candidates().size() == 1) {
+                addEntity(entities, mention.surface().candidates().get(0).symbol(), mention.surface().confidence());
+            }
+        }
+        for (Mention mention : selected) {
+            if (mention.surface().candidates().size() > 1) {
+                resolve(entities, mention.surface(), context);
+            }
+        }
+
+        entities.sort((a, b) -> Double.compare(b.confidence(), a.confidence()));
+        return entities;
+    }
+
+    // Scores each candidate by one plus the context words voting for it, plus two if it is already named outright;
+    // ties go to the candidate listed first in the master
+    private void resolve(List<LinkedEntity> entities, Surface surface, List<Surface> context) {
+        SymbolInfo best = null;
+        int bestScore = 0;
+        int totalScore = 0;
+        for (SymbolInfo candidate : surface.candidates()) {
+            int score = 1;
+            for (Surface vote : context) {
+                if (vote.candidates().contains(candidate)) {
+                    score++;
+                }
+            }
+            if (indexOf(entities, candidate.symbol()) >= 0) {
+                score += 2;
+            }
+            totalScore += score;
+            if (score > bestScore) {
+                best = candidate;
+                bestScore = score;
+            }
+        }
+        addEntity(entities, best.symbol(), surface.confidence() * bestScore / totalScore);
+    }
+
+    private void addEntity(List<LinkedEntity> entities, String symbol, double confidence) {
+        int index = indexOf(entities, symbol);
+        if (index < 0) {
+            entities.add(new LinkedEntity(symbol, confidence));
+        } else if (entities.get(index).confidence() < confidence) {
+            entities.set(index, new LinkedEntity(symbol, confidence));
+        }
+    }
+
+    private int indexOf(List<LinkedEntity> entities, String symbol) {
+        for (int i = 0; i < entities.size(); i++) {
+            if (entities.get(i).symbol().equals(symbol)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void addSurface(Map<String, List<SymbolInfo>> candidatesBySurface, Map<String, Double> confidenceBySurface,
+                            String surface, SymbolInfo info, double confidence) {
+        String key = surface.trim();
+        if (key.isEmpty()) {
+            return;
+        }
+        List<SymbolInfo> candidates = candidatesBySurface.computeIfAbsent(key, k -> new ArrayList<>(1));
+        if (!candidates.contains(info)) {
+            candidates.add(info);
+        }
+        confidenceBySurface.merge(key, confidence, Math::max);
+    }
+
+    // Multi-word aliases are specific; short single tokens ("LT", "SBI") are more likely to be noise
+    private double aliasConfidence(String alias) {
+        if (alias.indexOf(' ') > 0) {
+            return 0.95;
+        }
+        return alias.length() >= 4 ? 0.85 : 0.7;
+    }
+
+    private String shortName(String name) {
+        String shortName = name;
+        boolean stripped = true;
+        while (stripped) {
+            stripped = false;
+            for (String suffix : NAME_SUFFIXES) {
+                if (shortName.endsWith(suffix)) {
+                    shortName = shortName.substring(0, shortName.length() - suffix.length());
+                    stripped = true;
+                }
+            }
+        }
+        return shortName;
+    }
+
+    private Set<String> contextWordsOf(SymbolInfo info) {
+        Set<String> words = new LinkedHashSet<>();
+        for (String word : info.name().toUpperCase().split("\\s+")) {
+            if (word.length() > 2 && !GENERIC_WORDS.contains(word)) {
+                words.add(word);
+            }
+        }
+        String sector = info.sector().toUpperCase();
+        if (!sector.isEmpty()) {
+            words.add(sector);
+        }
+        return words;
+    }
+
+    private boolean isWholeWord(String text, int start, int end) {
+        return (start == 0 || !Character.isLetterOrDigit(text.charAt(start - 1)))
+            && (end == text.length() || !Character.isLetterOrDigit(text.charAt(end)));
+    }
+}
@@ -0,0 +1,10 @@
+package com.stockmarket.service;
+
+// One RSS item or Atom entry as read from a feed; text is entity-decoded but may still contain HTML markup
+public record FeedArticle(
+    String title,
+    String link,
+    String description,
+    String publishedAt
+) {
+}
@@ -0,0 +1,11 @@
+package com.stockmarket.service;
+
+// One row of the feed registry; parser selects the feed-specific parser, "rss" for the generic one
+public record FeedDefinition(
+    String key,
+    String source,
+    String url,
+    String host,
+    String parser
+) {
+}
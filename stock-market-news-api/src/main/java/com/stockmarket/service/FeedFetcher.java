@@ -0,0 +1,108 @@
+package com.stockmarket.service;
+
+import com.stockmarket.config.ProviderRestTemplates;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+// Conditional, compressed feed downloads: unchanged feeds cost one 304 and no parsing
+@Component
+public class FeedFetcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeedFetcher.class);
+
+    // The JDK has no Brotli decoder, so only gzip and deflate are negotiated
+    private static final String ACCEPT_ENCODING = "gzip, deflate";
+
+    @FunctionalInterface
+    public interface BodyParser<T> {
+        T parse(InputStream body, Charset charset) throws IOException;
+    }
+
+    // Validators from the last 200 together with what was parsed from that body
+    private record FeedState(String etag, String lastModified, Object parsed) {
+    }
+
+    private final RestTemplate restTemplate;
+    private final Map<String, FeedState> feedStates = new ConcurrentHashMap<>();
+
+    public FeedFetcher(ProviderRestTemplates restTemplates) {
+        this.restTemplate = restTemplates.forProvider("rss");
+    }
+
+    // Returns the freshly parsed feed, or the result parsed from the previous body when the server answers 304
+    @SuppressWarnings("unchecked")
+    public <T> T fetch(String url, BodyParser<T> parser) {
+        FeedState previous = feedStates.get(url);
+
+        return restTemplate.execute(url, HttpMethod.GET, request -> {
+            HttpHeaders headers = request.getHeaders();
+            headers.set(HttpHeaders.ACCEPT_ENCODING, ACCEPT_ENCODING);
+            if (previous != null) {
+                if (previous.etag() != null) {
+                    headers.set(HttpHeaders.IF_NONE_MATCH, previous.etag());
+                }
+                if (previous.lastModified() != null) {
+                    headers.set(HttpHeaders.IF_MODIFIED_SINCE, previous.lastModified());
+                }
+            }
+        }, response -> {
+            if (response.getStatusCode().value() == HttpStatus.NOT_MODIFIED.value() && previous != null) {
+                logger.debug("📭 Feed unchanged, reusing parsed result: {}", url);
+                return (T) previous.parsed();
+            }
+
+            HttpHeaders headers = response.getHeaders();
+            T parsed;
+            try (InputStream body = decode(response.getBody(), headers.getFirst(HttpHeaders.CONTENT_ENCODING))) {
+                parsed = parser.parse(body, charsetOf(headers));
+            }
+
+            // Validators are kept only once the body parsed, so a 304 always has a result to fall back on
+            String etag = headers.getETag();
+            String lastModified = headers.getFirst(HttpHeaders.LAST_MODIFIED);
+            if (etag != null || lastModified != null) {
+                feedStates.put(url, new FeedState(etag, lastModified, parsed));
+            } else {
+                feedStates.remove(url);
+            }
+            return parsed;
+        });
+    }
+
+    private InputStream decode(InputStream body, String contentEncoding) throws IOException {
+        if ("gzip".equalsIgnoreCase(contentEncoding)) {
+            return new GZIPInputStream(body);
+        }
+        if ("deflate".equalsIgnoreCase(contentEncoding)) {
+            return new InflaterInputStream(body);
+        }
+        return body;
+    }
+
+    private Charset charsetOf(HttpHeaders headers) {
+        try {
+            MediaType contentType = headers.getContentType();
+            if (contentType != null && contentType.getCharset() != null) {
+                return contentType.getCharset();
+            }
+        } catch (RuntimeException e) {
+            logger.debug("⚠️ Unreadable feed content type: {}", e.getMessage());
+        }
+        return StandardCharsets.UTF_8;
+    }
+}
@@ -0,0 +1,91 @@
+package com.stockmarket.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+// News feeds loaded from a CSV registry at startup; adding a source is a data change, not a code change
+@Component
+public class FeedRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeedRegistry.class);
+
+    @Value("${news.feeds.location:classpath:data/news-feeds.csv}")
+    private Resource registryFile;
+
+    private List<FeedDefinition> feeds = List.of();
+    private Map<String, FeedDefinition> byKey = Map.of();
+
+    @PostConstruct
+    void load() throws IOException {
+        List<FeedDefinition> definitions = new ArrayList<>();
+        Map<String, FeedDefinition> keyIndex = new HashMap<>();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(registryFile.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            boolean header = true;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                if (header) {
+                    header = false;
+                    continue;
+                }
+
+                String[] columns = line.split(",", -1);
+                if (columns.length < 4) {
+                    logger.warn("⚠️ Skipping malformed feed registry row: {}", line);
+                    continue;
+                }
+                String key = columns[0].trim().toLowerCase();
+                if (keyIndex.containsKey(key)) {
+                    logger.warn("⚠️ Duplicate feed key {}, keeping the first row", key);
+                    continue;
+                }
+                String url = columns[2].trim();
+                String host;
+                try {
+                    host = URI.create(url).getHost();
+                } catch (IllegalArgumentException e) {
+                    host = null;
+                }
+                if (host == null) {
+                    logger.warn("⚠️ Skipping feed {} with invalid URL {}", key, url);
+                    continue;
+                }
+                String parser = columns[3].trim().isEmpty() ? "rss" : columns[3].trim().toLowerCase();
+
+                FeedDefinition feed = new FeedDefinition(key, columns[1].trim(), url, host.toLowerCase(), parser);
+                definitions.add(feed);
+                keyIndex.put(key, feed);
+            }
+        }
+
+        this.feeds = List.copyOf(definitions);
+        this.byKey = keyIndex;
+        logger.info("🗂️ Loaded {} news feeds from registry {}", definitions.size(), registryFile.getDescription());
+    }
+
+    public List<FeedDefinition> getFeeds() {
+        return feeds;
+    }
+
+    public FeedDefinition get(String key) {
+        return byKey.get(key);
+    }
+
+    public int size() {
+        return feeds.size();
+    }
+}
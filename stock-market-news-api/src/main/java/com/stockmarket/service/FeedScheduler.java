@@ -0,0 +1,151 @@
+package com.stockmarket.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Polls each registered feed on its own learned cadence: busy feeds more often, quiet or failing ones backed off
+@Component
+public class FeedScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeedScheduler.class);
+
+    // Weight of the newest observed gap between feed updates in the moving average
+    private static final double GAP_SMOOTHING = 0.3;
+
+    // Mutated only by the ingestion poller thread; status reads may be slightly stale
+    private static class FeedState {
+        long nextDueMillis;
+        long intervalMillis;
+        long averageGapMillis;
+        long lastChangeMillis;
+        int consecutiveFailures;
+    }
+
+    @Autowired
+    private FeedRegistry feedRegistry;
+
+    @Autowired
+    private RealNewsAggregatorService realNewsAggregatorService;
+
+    @Autowired
+    private NewsStore newsStore;
+
+    @Autowired
+    private MarketSessionService marketSessionService;
+
+    @Value("${news.scheduler.min-interval:30s}")
+    private Duration minInterval;
+
+    @Value("${news.scheduler.max-interval:30m}")
+    private Duration maxInterval;
+
+    @Value("${news.scheduler.max-feeds-per-tick:32}")
+    private int maxFeedsPerTick;
+
+    private final Map<String, FeedState> states = new ConcurrentHashMap<>();
+
+    // Fetches the feeds that are due (most overdue first), merges them into the store and returns the articles added
+    public int pollDueFeeds() {
+        long now = System.currentTimeMillis();
+        List<FeedDefinition> due = new ArrayList<>();
+        for (FeedDefinition feed : feedRegistry.getFeeds()) {
+            if (stateOf(feed).nextDueMillis <= now) {
+                due.add(feed);
+            }
+        }
+        if (due.isEmpty()) {
+            return 0;
+        }
+        due.sort(Comparator.comparingLong(feed -> stateOf(feed).nextDueMillis));
+        if (due.size() > maxFeedsPerTick) {
+            due = due.subList(0, maxFeedsPerTick);
+        }
+
+        Map<String, List<Map<String, Object>>> results = realNewsAggregatorService.fetchFeeds(due);
+        boolean trading = marketSessionService.isTradingSession();
+        long finishedAt = System.currentTimeMillis();
+        int added = 0;
+        for (FeedDefinition feed : due) {
+            // Feeds deferred by the per-host limit are not in the results and stay due for the next tick
+            if (!results.containsKey(feed.key())) {
+                continue;
+            }
+            List<Map<String, Object>> items = results.get(feed.key());
+            int feedAdded = items != null ? newsStore.merge(items) : 0;
+            reschedule(stateOf(feed), items != null, feedAdded > 0, trading, finishedAt);
+            added += feedAdded;
+        }
+        logger.debug("🗓️ Polled {} due feeds, {} new articles", results.size(), added);
+        return added;
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        for (FeedDefinition feed : feedRegistry.getFeeds()) {
+            FeedState state = stateOf(feed);
+            status.put(feed.key(), Map.of(
+                "intervalSeconds", state.intervalMillis / 1000,
+                "averageUpdateGapSeconds", state.averageGapMillis / 1000,
+                "nextDueAt", state.nextDueMillis,
+                "consecutiveFailures", state.consecutiveFailures
+            ));
+        }
+        return status;
+    }
+
+    private FeedState stateOf(FeedDefinition feed) {
+        return states.computeIfAbsent(feed.key(), key -> {
+            FeedState state = new FeedState();
+            state.intervalMillis = minInterval.toMillis();
+            return state;
+        });
+    }
+
+    private void reschedule(FeedState state, boolean succeeded, boolean changed, boolean trading, long now) {
+        long interval;
+        if (!succeeded) {
+            // Failing feeds back off exponentially
+            state.consecutiveFailures++;
+            interval = state.intervalMillis << Math.min(state.consecutiveFailures, 6);
+        } else if (changed) {
+            // Learn the feed's update rate and poll about twice per expected update
+            state.consecutiveFailures = 0;
+            if (state.lastChangeMillis > 0) {
+                long gap = now - state.lastChangeMillis;
+                state.averageGapMillis = state.averageGapMillis == 0 ? gap
+                    : (long) (GAP_SMOOTHING * gap + (1 - GAP_SMOOTHING) * state.averageGapMillis);
+            }
+            state.lastChangeMillis = now;
+            interval = state.averageGapMillis > 0 ? state.averageGapMillis / 2 : state.intervalMillis / 2;
+        } else {
+            // Nothing new: back off gradually
+            state.consecutiveFailures = 0;
+            interval = state.intervalMillis * 3 / 2;
+        }
+
+        interval = Math.max(minInterval.toMillis(), Math.min(maxInterval.toMillis(), interval));
+        if (!succeeded) {
+            // The failure backoff is applied on top of the learned interval, not remembered as the interval itself
+            state.nextDueMillis = now + withJitter(interval);
+            return;
+        }
+        state.intervalMillis = interval;
+
+        // Outside trading hours no feed is polled more often than the idle news TTL
+        long effective = trading ? interval : Math.max(interval, marketSessionService.getNewsTtl().toMillis());
+        state.nextDueMillis = now + withJitter(effective);
+    }
+
+    // Up to 10% jitter keeps hundreds of feeds from falling due on the same tick
+    private long withJitter(long interval) {
+        return interval + ThreadLocalRandom.current().nextLong(interval / 10 + 1);
+    }
+}
@@ -0,0 +1,28 @@
+package com.stockmarket.service;
+
+import java.util.List;
+
+// Everything the news services need from one pass over a headline: relevance, mentioned symbols and sentiment
+public record HeadlineClassification(
+    boolean stockRelated,
+    boolean excluded,
+    List<String> symbols,
+    String index,
+    int positiveHits,
+    int negativeHits
+) {
+
+    // Equity symbols first in order of appearance, then the market index, then the whole market
+    public String primarySymbol() {
+        if (!symbols.isEmpty()) {
+            return symbols.get(0);
+        }
+        return index != null ? index : "MARKET";
+    }
+
+    public String sentiment() {
+        if (positiveHits > negativeHits) return "positive";
+        if (negativeHits > positiveHits) return "negative";
+        return "neutral";
+    }
+}
@@ -0,0 +1,203 @@
+package com.stockmarket.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.BooleanSupplier;
+
+// Shared headline classifier: the lexicon and every equity symbol and company alias compiled into one keyword
+// automaton, so a headline is classified in a single pass whatever the size of the equity master or lexicon
+@Component
+public class HeadlineClassifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(HeadlineClassifier.class);
+
+    // SYMBOL and COMPANY terms come from the equity master, never from the lexicon
+    private enum Category { RELEVANT, POSITIVE, NEGATIVE, EXCLUDE, INDEX, SYMBOL, COMPANY }
+
+    // Lexicon terms only need to start a word; symbols and aliases must be whole words ("ITC" is not in "SWITCH").
+    // The keyword is part of the identity, so each distinct keyword of a category counts on its own.
+    // Common words are master surfaces that are also dictionary words, matched only by isCompanyMention.
+    private record Term(Category category, String keyword, String value, boolean wholeWord, boolean commonWord) {
+    }
+
+    @Value("${news.classifier.lexicon-location:classpath:data/headline-lexicon.csv}")
+    private Resource lexiconFile;
+
+    @Autowired
+    private SymbolMaster symbolMaster;
+
+    private KeywordAutomaton<Term> automaton;
+
+    @PostConstruct
+    void load() throws IOException {
+        KeywordAutomaton.Builder<Term> builder = KeywordAutomaton.builder();
+        int terms = 0;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(lexiconFile.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            boolean header = true;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                if (header) {
+                    header = false;
+                    continue;
+                }
+
+                String[] columns = line.split(",", -1);
+                Category category = columns.length >= 2 ? categoryOf(columns[0]) : null;
+                if (category == null || category == Category.SYMBOL || category == Category.COMPANY || columns[1].isBlank()) {
+                    logger.warn("⚠️ Skipping malformed headline lexicon row: {}", line);
+                    continue;
+                }
+                String value = columns.length > 2 && !columns[2].isBlank() ? columns[2].trim() : null;
+                if (category == Category.INDEX && value == null) {
+                    logger.warn("⚠️ Skipping index lexicon row without a symbol: {}", line);
+                    continue;
+                }
+                String keyword = columns[1].trim();
+                builder.add(keyword, new Term(category, keyword.toLowerCase(), value, false, false));
+                terms++;
+            }
+        }
+
+        // Company names make a headline market news, so they follow the equity master instead of the lexicon
+        int aliases = 0;
+        for (SymbolInfo info : symbolMaster.getAll()) {
+            builder.add(info.symbol(), new Term(Category.SYMBOL, info.symbol(), info.symbol(), true, info.isCommonWord(info.symbol())));
+            for (String alias : info.aliases()) {
+                builder.add(alias, new Term(Category.COMPANY, alias, info.symbol(), true, info.isCommonWord(alias)));
+                aliases++;
+            }
+        }
+
+        this.automaton = builder.build();
+        logger.info("🏷️ Compiled {} lexicon terms, {} symbols and {} company aliases into the headline classifier",
+            terms, symbolMaster.size(), aliases);
+    }
+
+    public HeadlineClassification classify(String headline) {
+        return classify(headline, null);
+    }
+
+    // Relevance, symbols and exclusion come from the headline; sentiment also counts the body. Each distinct
+    // sentiment term counts once, however often it appears.
+    public HeadlineClassification classify(String headline, String body) {
+        Set<Term> seen = new HashSet<>();
+        List<String> symbols = new ArrayList<>(2);
+        String[] index = new String[1];
+        boolean[] flags = new boolean[2];
+        int[] sentiment = new int[2];
+        Boolean[] marketContext = new Boolean[1];
+
+        if (headline != null) {
+            automaton.scan(headline, (term, start, end) -> {
+                if (!isMatch(headline, term, start, end)) {
+                    return;
+                }
+                if (term.commonWord() && !isCompanyMention(headline, term.keyword(), start, end, () -> {
+                    if (marketContext[0] == null) {
+                        marketContext[0] = hasMarketContext(headline);
+                    }
+                    return marketContext[0];
+                })) {
+                    return;
+                }
+                if (!seen.add(term)) {
+                    return;
+                }
+                switch (term.category()) {
+                    case RELEVANT -> flags[0] = true;
+                    case EXCLUDE -> flags[1] = true;
+                    case INDEX -> {
+                        flags[0] = true;
+                        if (index[0] == null) {
+                            index[0] = term.value();
+                        }
+                    }
+                    // An alias reports the company's symbol ("Infosys" -> INFY); an ambiguous one reports each candidate
+                    case SYMBOL, COMPANY -> {
+                        flags[0] = true;
+                        if (!symbols.contains(term.value())) {
+                            symbols.add(term.value());
+                        }
+                    }
+                    case POSITIVE -> sentiment[0]++;
+                    case NEGATIVE -> sentiment[1]++;
+                }
+            });
+        }
+        if (body != null) {
+            automaton.scan(body, (term, start, end) -> {
+                if ((term.category() == Category.POSITIVE || term.category() == Category.NEGATIVE)
+                    && isMatch(body, term, start, end) && seen.add(term)) {
+                    sentiment[term.category() == Category.POSITIVE ? 0 : 1]++;
+                }
+            });
+        }
+
+        return new HeadlineClassification(flags[0], flags[1], List.copyOf(symbols), index[0], sentiment[0], sentiment[1]);
+    }
+
+    // Whether the text uses generic market vocabulary (lexicon relevant and index terms); company names do not count
+    public boolean hasMarketContext(String text) {
+        if (text == null) {
+            return false;
+        }
+        boolean[] found = new boolean[1];
+        automaton.scan(text, (term, start, end) -> {
+            if ((term.category() == Category.RELEVANT || term.category() == Category.INDEX) && isMatch(text, term, start, end)) {
+                found[0] = true;
+            }
+        });
+        return found[0];
+    }
+
+    // A master surface that is also a dictionary word ("RELIANCE") names the company when written as the ticker, or
+    // capitalised and either followed by another capitalised word ("Reliance Jio") or in a headline with market
+    // vocabulary; in lower case ("India's reliance on imports") it is the ordinary word
+    static boolean isCompanyMention(String text, String form, int start, int end, BooleanSupplier marketContext) {
+        String written = text.substring(start, end);
+        if (written.equals(form)) {
+            return true;
+        }
+        if (!Character.isUpperCase(written.charAt(0))) {
+            return false;
+        }
+        int next = end;
+        while (next < text.length() && text.charAt(next) == ' ') {
+            next++;
+        }
+        if (next > end && next < text.length() && Character.isUpperCase(text.charAt(next))) {
+            return true;
+        }
+        return marketContext.getAsBoolean();
+    }
+
+    private boolean isMatch(String text, Term term, int start, int end) {
+        if (start > 0 && Character.isLetterOrDigit(text.charAt(start - 1))) {
+            return false;
+        }
+        return !term.wholeWord() || end == text.length() || !Character.isLetterOrDigit(text.charAt(end));
+    }
+
+    private Category categoryOf(String name) {
+        try {
+            return Category.valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -22,9 +22,9 @@ public class IntelligentRecommendationEngine {
         logger.debug("🧠 Generating intelligent recommendation for {} using all analytics", symbol);
         
         // Get live market data
-        double currentPrice = liveMarketDataService.getCurrentPrice(symbol);
-        long volume = liveMarketDataService.getCurrentVolume(symbol);
-        Map<String, Object> liveData = liveMarketDataService.getCompleteMarketData(symbol);
+        Quote quote = liveMarketDataService.getQuote(symbol);
+        double currentPrice = quote.currentPrice();
+        long volume = quote.volume();
         
         // Get all advanced analytics
         Map<String, Object> analytics = advancedAnalyticsService.getAdvancedMetrics(symbol, currentPrice, volume);
@@ -61,13 +61,11 @@ public class IntelligentRecommendationEngine {
         recommendation.put("catalysts", decision.catalysts);
         
         // Add live market data
-        recommendation.put("liveMarketData", liveData);
+        recommendation.put("liveMarketData", quote.toMap());
         recommendation.put("currentPrice", String.format("₹%.2f", currentPrice));
-        recommendation.put("dayRange", String.format("₹%.2f - ₹%.2f", 
-                                                    (Double) liveData.get("dayLow"), 
-                                                    (Double) liveData.get("dayHigh")));
-        recommendation.put("changePercent", String.format("%.2f%%", (Double) liveData.get("changePercent")));
-        recommendation.put("dataSource", liveData.get("dataSource"));
+        recommendation.put("dayRange", String.format("₹%.2f - ₹%.2f", quote.dayLow(), quote.dayHigh()));
+        recommendation.put("changePercent", String.format("%.2f%%", quote.changePercent()));
+        recommendation.put("dataSource", quote.dataSource());
         
         logger.debug("🧠 Generated {} recommendation for {} with {}% confidence", 
                     decision.action, symbol, decision.confidence);
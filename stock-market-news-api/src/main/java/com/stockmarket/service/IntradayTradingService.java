@@ -1,5 +1,6 @@
 package com.stockmarket.service;
 
+import com.stockmarket.config.ProviderRestTemplates;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -24,37 +25,46 @@ public class IntradayTradingService {
     @Autowired
     private LiveMarketDataService liveMarketDataService;
     
+    @Autowired
+    private MarketSessionService marketSessionService;
+    
+    @Autowired
+    private TickStore tickStore;
+    
     @Value("${alphavantage.api.key:demo}")
     private String apiKey;
     
-    public IntradayTradingService() {
-        this.restTemplate = new RestTemplate();
+    @Value("${marketdata.recommendations.intraday:RELIANCE,HDFCBANK,TCS,INFY}")
+    private List<String> symbols;
+    
+    public IntradayTradingService(ProviderRestTemplates restTemplates) {
+        this.restTemplate = restTemplates.forProvider("alphavantage");
     }
     
     public List<Map<String, Object>> getIntradayRecommendations() {
         logger.debug("⚡ Generating intelligent intraday recommendations using comprehensive analytics");
         
         // Generate intelligent recommendations using all analytics
-        String[] symbols = {"RELIANCE", "HDFCBANK", "TCS", "INFY"};
         List<Map<String, Object>> recommendations = new ArrayList<>();
         
+        // Resolve the whole watchlist in one bulk quote call before analysing each symbol
+        liveMarketDataService.getQuotes(symbols);
+        
         for (String symbol : symbols) {
             try {
                 Map<String, Object> recommendation = intelligentEngine.generateIntelligentRecommendation(symbol);
                 
                 // Add current market data
-                double currentPrice = liveMarketDataService.getCurrentPrice(symbol);
-                long currentVolume = liveMarketDataService.getCurrentVolume(symbol);
-                Map<String, Object> completeMarketData = liveMarketDataService.getCompleteMarketData(symbol);
+                Quote quote = liveMarketDataService.getQuote(symbol);
                 
                 // Add intraday-specific enhancements with current prices
                 recommendation.put("tradingStyle", "INTRADAY");
-                recommendation.put("currentPrice", currentPrice);
-                recommendation.put("currentVolume", currentVolume);
-                recommendation.put("dayHigh", completeMarketData.get("dayHigh"));
-                recommendation.put("dayLow", completeMarketData.get("dayLow"));
-                recommendation.put("previousClose", completeMarketData.get("previousClose"));
-                recommendation.put("changePercent", completeMarketData.get("changePercent"));
+                recommendation.put("currentPrice", quote.currentPrice());
+                recommendation.put("currentVolume", quote.volume());
+                recommendation.put("dayHigh", quote.dayHigh());
+                recommendation.put("dayLow", quote.dayLow());
+                recommendation.put("previousClose", quote.previousClose());
+                recommendation.put("changePercent", quote.changePercent());
                 recommendation.put("marketSession", getCurrentMarketSession());
                 recommendation.put("volumeProfile", getVolumeProfile(symbol));
                 recommendation.put("intradayLevels", getIntradayLevels(symbol));
@@ -78,8 +88,7 @@ public class IntradayTradingService {
     }
     
     private String getCurrentMarketSession() {
-        // Simplified market session detection
-        return "Regular Trading (9:15 AM - 3:30 PM)";
+        return marketSessionService.getCurrentSession().getLabel();
     }
     
     private Map<String, String> getVolumeProfile(String symbol) {
@@ -93,12 +102,19 @@ public class IntradayTradingService {
     
     private Map<String, String> getIntradayLevels(String symbol) {
         double currentPrice = liveMarketDataService.getCurrentPrice(symbol);
+        
+        // Use the observed intraday range when ticks have been recorded today
+        TickRingBuffer.TickSnapshot ticks = tickStore.today(symbol);
+        double dayHigh = ticks.size() > 0 ? ticks.high() : currentPrice * 1.025;
+        double dayLow = ticks.size() > 0 ? ticks.low() : currentPrice * 0.975;
+        double pivot = ticks.size() > 0 ? (dayHigh + dayLow + currentPrice) / 3 : currentPrice * 1.002;
+        
         return Map.of(
-            "pivotPoint", String.format("₹%.0f", currentPrice * 1.002),
-            "resistance1", String.format("₹%.0f", currentPrice * 1.015),
-            "support1", String.format("₹%.0f", currentPrice * 0.985),
-            "dayHigh", String.format("₹%.0f", currentPrice * 1.025),
-            "dayLow", String.format("₹%.0f", currentPrice * 0.975)
+            "pivotPoint", String.format("₹%.0f", pivot),
+            "resistance1", String.format("₹%.0f", ticks.size() > 0 ? 2 * pivot - dayLow : currentPrice * 1.015),
+            "support1", String.format("₹%.0f", ticks.size() > 0 ? 2 * pivot - dayHigh : currentPrice * 0.985),
+            "dayHigh", String.format("₹%.0f", dayHigh),
+            "dayLow", String.format("₹%.0f", dayLow)
         );
     }
     
@@ -0,0 +1,161 @@
+package com.stockmarket.service;
+
+import java.util.*;
+
+// Aho-Corasick automaton over a fixed keyword set: one case-insensitive pass over the text reports every keyword
+// occurrence, so the cost is linear in the text length however many keywords there are.
+// Immutable once built and safe to share between threads.
+public class KeywordAutomaton<T> {
+
+    public interface MatchHandler<T> {
+        // start inclusive, end exclusive, in the scanned text's own indices
+        void onMatch(T value, int start, int end);
+    }
+
+    private static final int[] NO_OUTPUTS = new int[0];
+
+    // Per state: sorted transition characters with their target states, the failure link, the keywords ending
+    // here, and the nearest state on the failure chain that also ends a keyword
+    private final char[][] transitionChars;
+    private final int[][] transitionTargets;
+    private final int[] failure;
+    private final int[][] outputs;
+    private final int[] outputLink;
+
+    private final List<T> values;
+    private final int[] lengths;
+
+    private KeywordAutomaton(char[][] transitionChars, int[][] transitionTargets, int[] failure, int[][] outputs,
+                             int[] outputLink, List<T> values, int[] lengths) {
+        this.transitionChars = transitionChars;
+        this.transitionTargets = transitionTargets;
+        this.failure = failure;
+        this.outputs = outputs;
+        this.outputLink = outputLink;
+        this.values = values;
+        this.lengths = lengths;
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    public void scan(CharSequence text, MatchHandler<T> handler) {
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            int next;
+            while ((next = transition(state, c)) < 0 && state != 0) {
+                state = failure[state];
+            }
+            state = Math.max(next, 0);
+
+            for (int output = outputs[state].length > 0 ? state : outputLink[state]; output > 0; output = outputLink[output]) {
+                for (int keyword : outputs[output]) {
+                    handler.onMatch(values.get(keyword), i + 1 - lengths[keyword], i + 1);
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    private int transition(int state, char c) {
+        int index = Arrays.binarySearch(transitionChars[state], c);
+        return index >= 0 ? transitionTargets[state][index] : -1;
+    }
+
+    public static class Builder<T> {
+
+        private final List<Map<Character, Integer>> children = new ArrayList<>();
+        private final List<List<Integer>> endingHere = new ArrayList<>();
+        private final List<T> values = new ArrayList<>();
+        private final List<Integer> lengths = new ArrayList<>();
+
+        private Builder() {
+            newState();
+        }
+
+        // Keywords are matched case-insensitively; adding the same keyword twice reports both values
+        public Builder<T> add(String keyword, T value) {
+            if (keyword == null || keyword.isEmpty()) {
+                return this;
+            }
+            int state = 0;
+            for (int i = 0; i < keyword.length(); i++) {
+                char c = Character.toLowerCase(keyword.charAt(i));
+                Integer next = children.get(state).get(c);
+                if (next == null) {
+                    next = newState();
+                    children.get(state).put(c, next);
+                }
+                state = next;
+            }
+            endingHere.get(state).add(values.size());
+            values.add(value);
+            lengths.add(keyword.length());
+            return this;
+        }
+
+        public KeywordAutomaton<T> build() {
+            int states = children.size();
+            char[][] transitionChars = new char[states][];
+            int[][] transitionTargets = new int[states][];
+            int[][] outputs = new int[states][];
+            for (int state = 0; state < states; state++) {
+                // TreeMap iteration keeps the characters sorted for binary search
+                Map<Character, Integer> sorted = new TreeMap<>(children.get(state));
+                transitionChars[state] = new char[sorted.size()];
+                transitionTargets[state] = new int[sorted.size()];
+                int index = 0;
+                for (Map.Entry<Character, Integer> edge : sorted.entrySet()) {
+                    transitionChars[state][index] = edge.getKey();
+                    transitionTargets[state][index] = edge.getValue();
+                    index++;
+                }
+                List<Integer> ending = endingHere.get(state);
+                outputs[state] = ending.isEmpty() ? NO_OUTPUTS : ending.stream().mapToInt(Integer::intValue).toArray();
+            }
+
+            // Breadth-first, so every state's failure target is finished before the state itself
+            int[] failure = new int[states];
+            int[] outputLink = new int[states];
+            Deque<Integer> queue = new ArrayDeque<>();
+            for (int child : transitionTargets[0]) {
+                queue.add(child);
+            }
+            while (!queue.isEmpty()) {
+                int state = queue.poll();
+                for (int index = 0; index < transitionChars[state].length; index++) {
+                    char c = transitionChars[state][index];
+                    int child = transitionTargets[state][index];
+
+                    int fallback = failure[state];
+                    int target;
+                    while ((target = find(transitionChars, transitionTargets, fallback, c)) < 0 && fallback != 0) {
+                        fallback = failure[fallback];
+                    }
+                    failure[child] = Math.max(target, 0);
+                    outputLink[child] = outputs[failure[child]].length > 0 ? failure[child] : outputLink[failure[child]];
+                    queue.add(child);
+                }
+            }
+
+            return new KeywordAutomaton<>(transitionChars, transitionTargets, failure, outputs, outputLink,
+                List.copyOf(values), lengths.stream().mapToInt(Integer::intValue).toArray());
+        }
+
+        private int newState() {
+            children.add(new HashMap<>());
+            endingHere.add(new ArrayList<>(1));
+            return children.size() - 1;
+        }
+
+        private static int find(char[][] transitionChars, int[][] transitionTargets, int state, char c) {
+            int index = Arrays.binarySearch(transitionChars[state], c);
+            return index >= 0 ? transitionTargets[state][index] : -1;
+        }
+    }
+}
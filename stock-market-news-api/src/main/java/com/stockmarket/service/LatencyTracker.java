@@ -0,0 +1,38 @@
+package com.stockmarket.service;
+
+import java.util.Arrays;
+
+// Fixed-size window of recent call latencies for percentile estimates
+public class LatencyTracker {
+    
+    private final long[] samples;
+    private int count;
+    private int next;
+    
+    public LatencyTracker(int windowSize) {
+        this.samples = new long[windowSize];
+    }
+    
+    public synchronized void record(long latencyMillis) {
+        samples[next] = latencyMillis;
+        next = (next + 1) % samples.length;
+        if (count < samples.length) {
+            count++;
+        }
+    }
+    
+    public synchronized int getSampleCount() {
+        return count;
+    }
+    
+    // Returns -1 when no samples have been recorded yet
+    public synchronized long getPercentile(double percentile) {
+        if (count == 0) {
+            return -1L;
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+        return sorted[Math.max(0, Math.min(index, count - 1))];
+    }
+}
@@ -0,0 +1,6 @@
+package com.stockmarket.service;
+
+// A listed company mentioned in a headline; confidence is 1.0 for an exact company name and lower for short or
+// shared aliases
+public record LinkedEntity(String symbol, double confidence) {
+}
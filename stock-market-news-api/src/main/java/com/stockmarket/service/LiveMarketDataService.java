@@ -2,10 +2,13 @@ package com.stockmarket.service;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestContextHolder;
 
 import java.util.*;
+import java.util.function.Function;
 import java.time.LocalDateTime;
 
 @Service
@@ -16,95 +19,111 @@ public class LiveMarketDataService {
     @Autowired
     private RealTimeStockDataService realTimeStockDataService;
     
+    @Autowired
+    private ObjectProvider<MarketSnapshot> marketSnapshotProvider;
+    
+    @Autowired
+    private QuoteBoard quoteBoard;
+    
+    @Autowired
+    private SymbolMaster symbolMaster;
+    
+    @Autowired
+    private MarketSessionService marketSessionService;
+    
+    // Reused per thread so price and volume reads never allocate
+    private static final ThreadLocal<QuoteBoard.QuoteView> BOARD_VIEW = ThreadLocal.withInitial(QuoteBoard.QuoteView::new);
+    
+    // Within a request both read the quote pinned in the snapshot, so price and volume (and any later getQuote) come
+    // from one quote; elsewhere they are served from the quote board while its quote is fresh, otherwise a full load
     public double getCurrentPrice(String symbol) {
-        try {
-            Map<String, Object> realTimeData = realTimeStockDataService.getRealTimeStockData(symbol);
-            Object price = realTimeData.get("currentPrice");
-            if (price instanceof Number) {
-                logger.debug("📊 Using real-time price for {}: {}", symbol, price);
-                return ((Number) price).doubleValue();
-            }
-        } catch (Exception e) {
-            logger.debug("⚠️ Real-time price fetch failed for {}, using fallback", symbol);
+        if (RequestContextHolder.getRequestAttributes() != null) {
+            return getQuote(symbol).currentPrice();
         }
-        
-        // Fallback to hardcoded prices
-        return getFallbackPrice(symbol);
+        QuoteBoard.QuoteView view = readBoard(symbol);
+        return view != null ? view.lastPrice : getQuote(symbol).currentPrice();
     }
     
     public long getCurrentVolume(String symbol) {
+        if (RequestContextHolder.getRequestAttributes() != null) {
+            return getQuote(symbol).volume();
+        }
+        QuoteBoard.QuoteView view = readBoard(symbol);
+        return view != null ? view.volume : getQuote(symbol).volume();
+    }
+    
+    // Null when the board has no fresh quote for the symbol
+    private QuoteBoard.QuoteView readBoard(String symbol) {
+        QuoteBoard.QuoteView view = BOARD_VIEW.get();
+        if (!quoteBoard.read(quoteBoard.idOf(symbol), view) || !marketSessionService.isQuoteFresh(view.timestamp)) {
+            return null;
+        }
+        return view;
+    }
+    
+    public Map<String, Object> getCompleteMarketData(String symbol) {
+        return getQuote(symbol).toMap();
+    }
+    
+    public Quote getQuote(String symbol) {
+        // Within a request, resolve each symbol once so all callers see the same prices
+        if (RequestContextHolder.getRequestAttributes() != null) {
+            return marketSnapshotProvider.getObject().resolve(symbol, this::loadQuote);
+        }
+        return loadQuote(symbol);
+    }
+    
+    public Map<String, Quote> getQuotes(Collection<String> symbols) {
+        // One bulk quote call for the whole list instead of a fetch per symbol
+        Map<String, Quote> bulkQuotes = Collections.emptyMap();
         try {
-            Map<String, Object> realTimeData = realTimeStockDataService.getRealTimeStockData(symbol);
-            Object volume = realTimeData.get("volume");
-            if (volume instanceof Number) {
-                logger.debug("📊 Using real-time volume for {}: {}", symbol, volume);
-                return ((Number) volume).longValue();
-            }
+            bulkQuotes = realTimeStockDataService.getQuotes(symbols);
         } catch (Exception e) {
-            logger.debug("⚠️ Real-time volume fetch failed for {}, using fallback", symbol);
+            logger.debug("⚠️ Bulk market data fetch failed for {} symbols, using per-symbol data", symbols.size());
         }
         
-        // Fallback to hardcoded volumes
-        return getFallbackVolume(symbol);
+        boolean inRequest = RequestContextHolder.getRequestAttributes() != null;
+        Map<String, Quote> quotes = new LinkedHashMap<>();
+        for (String symbol : symbols) {
+            Quote realTimeQuote = bulkQuotes.get(symbol);
+            Function<String, Quote> loader = realTimeQuote != null ? key -> realTimeQuote : this::loadQuote;
+            quotes.put(symbol, inRequest
+                ? marketSnapshotProvider.getObject().resolve(symbol, loader)
+                : loader.apply(symbol));
+        }
+        return quotes;
     }
     
-    public Map<String, Object> getCompleteMarketData(String symbol) {
+    private Quote loadQuote(String symbol) {
         try {
             // Try to get real-time data first
-            Map<String, Object> realTimeData = realTimeStockDataService.getRealTimeStockData(symbol);
-            if (realTimeData != null && realTimeData.containsKey("currentPrice")) {
+            Quote quote = realTimeStockDataService.getQuote(symbol);
+            if (quote != null) {
                 logger.debug("📊 Using real-time market data for {}", symbol);
-                return realTimeData;
+                return quote;
             }
         } catch (Exception e) {
             logger.debug("⚠️ Real-time market data fetch failed for {}, using fallback", symbol);
         }
         
         // Fallback to simulated data
-        return getFallbackMarketData(symbol);
+        return getFallbackQuote(symbol);
     }
     
-
-    
     // Fallback methods for when real-time APIs are unavailable
     private double getFallbackPrice(String symbol) {
         logger.debug("📊 Using fallback price for {}", symbol);
-        return switch (symbol) {
-            case "RELIANCE" -> 2750.50;
-            case "HDFCBANK" -> 1685.40;
-            case "TCS" -> 4127.65;
-            case "INFY" -> 1481.20;
-            case "BHARTIARTL" -> 948.75;
-            case "ITC" -> 418.95;
-            default -> 1000.0;
-        };
+        return symbolMaster.referencePrice(symbol);
     }
     
     private long getFallbackVolume(String symbol) {
-        return switch (symbol) {
-            case "RELIANCE" -> 4500000L;
-            case "HDFCBANK" -> 3650000L;
-            case "TCS" -> 1980000L;
-            case "INFY" -> 4200000L;
-            case "BHARTIARTL" -> 2800000L;
-            case "ITC" -> 3200000L;
-            default -> 1000000L;
-        };
+        return symbolMaster.averageVolume(symbol);
     }
     
-    private Map<String, Object> getFallbackMarketData(String symbol) {
-        Map<String, Object> data = new HashMap<>();
-        data.put("symbol", symbol);
-        data.put("currentPrice", getFallbackPrice(symbol));
-        data.put("volume", getFallbackVolume(symbol));
-        data.put("dayHigh", getFallbackPrice(symbol) * 1.02);
-        data.put("dayLow", getFallbackPrice(symbol) * 0.98);
-        data.put("previousClose", getFallbackPrice(symbol) * 0.995);
-        data.put("changePercent", 1.25);
-        data.put("timestamp", System.currentTimeMillis());
-        data.put("source", "Fallback Data");
-        data.put("dataSource", "BACKEND_MOCK");
-        data.put("mockIndicator", "🎭 MOCK DATA - NOT REAL (Real-time APIs unavailable)");
-        return data;
+    private Quote getFallbackQuote(String symbol) {
+        double price = getFallbackPrice(symbol);
+        return new Quote(symbol, price, 1.25, price * 1.02, price * 0.98, price * 0.995,
+            getFallbackVolume(symbol), System.currentTimeMillis(), "Fallback Data",
+            "BACKEND_MOCK", "🎭 MOCK DATA - NOT REAL (Real-time APIs unavailable)", null);
     }
-}
\ No newline at end of file
+}
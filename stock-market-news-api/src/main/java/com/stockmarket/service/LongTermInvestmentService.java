@@ -3,6 +3,7 @@ package com.stockmarket.service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
@@ -18,26 +19,30 @@ public class LongTermInvestmentService {
     @Autowired
     private LiveMarketDataService liveMarketDataService;
     
+    @Value("${marketdata.recommendations.longterm:RELIANCE,HDFCBANK,TCS,BHARTIARTL,ADANIGREEN,ITC}")
+    private List<String> symbols;
+    
     public List<Map<String, Object>> getLongTermRecommendations() {
         logger.debug("📈 Generating intelligent long-term investment recommendations");
         
         // Generate intelligent recommendations for long-term investment
-        String[] symbols = {"RELIANCE", "HDFCBANK", "TCS", "BHARTIARTL", "ADANIGREEN", "ITC"};
         List<Map<String, Object>> recommendations = new ArrayList<>();
         
+        // Resolve the whole watchlist in one bulk quote call before analysing each symbol
+        liveMarketDataService.getQuotes(symbols);
+        
         for (String symbol : symbols) {
             try {
                 Map<String, Object> recommendation = intelligentEngine.generateIntelligentRecommendation(symbol);
                 
                 // Add current market data for long-term context
-                double currentPrice = liveMarketDataService.getCurrentPrice(symbol);
-                Map<String, Object> completeMarketData = liveMarketDataService.getCompleteMarketData(symbol);
+                Quote quote = liveMarketDataService.getQuote(symbol);
                 
                 // Add long-term specific enhancements with current prices
                 recommendation.put("tradingStyle", "LONG_TERM");
-                recommendation.put("currentPrice", currentPrice);
-                recommendation.put("previousClose", completeMarketData.get("previousClose"));
-                recommendation.put("changePercent", completeMarketData.get("changePercent"));
+                recommendation.put("currentPrice", quote.currentPrice());
+                recommendation.put("previousClose", quote.previousClose());
+                recommendation.put("changePercent", quote.changePercent());
                 recommendation.put("investmentHorizon", getLongTermHorizon(symbol));
                 recommendation.put("dividendYield", getDividendYield(symbol));
                 recommendation.put("growthMetrics", getGrowthMetrics(symbol));
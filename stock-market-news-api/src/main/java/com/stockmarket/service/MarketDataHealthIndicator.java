@@ -0,0 +1,31 @@
+package com.stockmarket.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// Exposes market data provider circuit state under /actuator/health (marketData component)
+@Component("marketData")
+public class MarketDataHealthIndicator implements HealthIndicator {
+    
+    @Autowired
+    private RealTimeStockDataService realTimeStockDataService;
+    
+    @Override
+    public Health health() {
+        Map<String, Map<String, Object>> providers = realTimeStockDataService.getProviderHealth();
+        boolean anyAvailable = providers.values().stream()
+            .anyMatch(provider -> ProviderCircuitBreaker.State.CLOSED.name().equals(provider.get("state")));
+        
+        // Mock data keeps the API answering, so an upstream outage stays UP (probes keep routing traffic) and is only
+        // flagged in the details
+        Health.Builder health = Health.up().withDetail("degraded", !anyAvailable);
+        if (!anyAvailable) {
+            health.withDetail("reason", "All real-time providers are unavailable");
+        }
+        return health.withDetail("providers", providers).build();
+    }
+}
@@ -0,0 +1,70 @@
+package com.stockmarket.service;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+// Source of real-time quotes. Implementations are Spring beans; RealTimeStockDataService orders them by
+// priority (lowest first) and composes them into its hedge and fallback chain.
+public interface MarketDataProvider {
+    
+    // Short key used for configuration, rate limits and circuit breakers, e.g. "yahoo"
+    String getKey();
+    
+    // Display name used in logs, health details and the dataSource indicator
+    String getName();
+    
+    int getPriority();
+    
+    ProviderCapabilities getCapabilities();
+    
+    // Completes with null when the provider has no quote for the symbol
+    CompletableFuture<Quote> fetchQuote(String symbol);
+    
+    // Quotes keyed by symbol; symbols the provider could not price are left out
+    default CompletableFuture<Map<String, Quote>> fetchQuotes(List<String> symbols) {
+        List<CompletableFuture<Quote>> futures = symbols.stream().map(this::fetchQuote).toList();
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).handle((ignored, error) -> {
+            Map<String, Quote> quotes = new HashMap<>();
+            for (int i = 0; i < symbols.size(); i++) {
+                Quote quote = futures.get(i).isCompletedExceptionally() ? null : futures.get(i).join();
+                if (quote != null) {
+                    quotes.put(symbols.get(i), quote);
+                }
+            }
+            return quotes;
+        });
+    }
+    
+    // Quota check before a call; unmetered providers always grant. A zero wait must not block.
+    default CompletableFuture<Boolean> acquirePermit(ApiRateLimiter.Priority priority, Duration maxWait) {
+        return CompletableFuture.completedFuture(true);
+    }
+    
+    default boolean isEnabled() {
+        return true;
+    }
+    
+    // Runs a blocking call on the executor; cancelling the returned future interrupts the call
+    static <T> CompletableFuture<T> supplyInterruptibly(Supplier<T> call, ExecutorService executor) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> running = executor.submit(() -> {
+            try {
+                result.complete(call.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                running.cancel(true);
+            }
+        });
+        return result;
+    }
+}
@@ -0,0 +1,128 @@
+package com.stockmarket.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+@Service
+public class MarketSessionService {
+
+    @Autowired
+    private NseTradingCalendar tradingCalendar;
+
+    // Quote TTLs per live session; outside them quotes stay frozen at the last close
+    @Value("${marketdata.ttl.pre-open:30s}")
+    private Duration preOpenQuoteTtl;
+
+    @Value("${marketdata.ttl.regular:15s}")
+    private Duration regularQuoteTtl;
+
+    @Value("${marketdata.ttl.post-close:2m}")
+    private Duration postCloseQuoteTtl;
+
+    @Value("${news.ttl.trading:30s}")
+    private Duration tradingNewsTtl;
+
+    @Value("${news.ttl.idle:15m}")
+    private Duration idleNewsTtl;
+
+    public enum Session {
+        PRE_OPEN("Pre-Open Session (9:00 AM - 9:15 AM)"),
+        REGULAR("Regular Trading (9:15 AM - 3:30 PM)"),
+        POST_CLOSE("Post-Close Session (3:30 PM - 4:00 PM)"),
+        CLOSED("Market Closed"),
+        HOLIDAY("Market Holiday");
+
+        private final String label;
+
+        Session(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    public ZoneId getZone() {
+        return tradingCalendar.getZone();
+    }
+
+    public Session getCurrentSession() {
+        return getSession(ZonedDateTime.now(getZone()));
+    }
+
+    public Session getSession(ZonedDateTime dateTime) {
+        ZonedDateTime localTime = dateTime.withZoneSameInstant(getZone());
+        LocalDate date = localTime.toLocalDate();
+        if (!tradingCalendar.hasSpecialSession(date)) {
+            if (tradingCalendar.isWeekend(date)) {
+                return Session.CLOSED;
+            }
+            if (tradingCalendar.isHoliday(date)) {
+                return Session.HOLIDAY;
+            }
+        }
+
+        NseTradingCalendar.SessionWindow window = tradingCalendar.findSession(date, localTime.toLocalTime());
+        if (window == null) {
+            return Session.CLOSED;
+        }
+        try {
+            return Session.valueOf(window.name());
+        } catch (IllegalArgumentException e) {
+            return Session.CLOSED;
+        }
+    }
+
+    // Midnight of the current trading day, used to scope intraday aggregates
+    public long getTradingDayStartMillis() {
+        ZoneId zone = getZone();
+        return ZonedDateTime.now(zone).toLocalDate().atStartOfDay(zone).toInstant().toEpochMilli();
+    }
+
+    public boolean isTradingSession() {
+        Session session = getCurrentSession();
+        return session == Session.PRE_OPEN || session == Session.REGULAR;
+    }
+
+    public long getPreviousCloseMillis() {
+        return tradingCalendar.getPreviousClose(ZonedDateTime.now(getZone())).toInstant().toEpochMilli();
+    }
+
+    public long getNextSessionStartMillis() {
+        return tradingCalendar.getNextSessionStart(ZonedDateTime.now(getZone())).toInstant().toEpochMilli();
+    }
+
+    // Null once the market has closed for the day: prices cannot move until the next session
+    public Duration getQuoteTtl(Session session) {
+        return switch (session) {
+            case PRE_OPEN -> preOpenQuoteTtl;
+            case REGULAR -> regularQuoteTtl;
+            case POST_CLOSE -> postCloseQuoteTtl;
+            case CLOSED, HOLIDAY -> null;
+        };
+    }
+
+    public boolean isQuoteFresh(long fetchedAtMillis) {
+        Duration ttl = getQuoteTtl(getCurrentSession());
+        if (ttl != null) {
+            return System.currentTimeMillis() - fetchedAtMillis < ttl.toMillis();
+        }
+        // Frozen after the close: anything fetched since the last close is final until the next open
+        return fetchedAtMillis >= getPreviousCloseMillis();
+    }
+
+    public Duration getNewsTtl() {
+        return isTradingSession() ? tradingNewsTtl : idleNewsTtl;
+    }
+
+    public boolean isNewsFresh(long fetchedAtMillis) {
+        return System.currentTimeMillis() - fetchedAtMillis < getNewsTtl().toMillis();
+    }
+}
@@ -0,0 +1,28 @@
+package com.stockmarket.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+import java.util.*;
+import java.util.function.Function;
+
+// Market data resolved once per HTTP request so every service reads the same prices
+@Component
+@RequestScope
+public class MarketSnapshot {
+    
+    private final Map<String, Quote> quotes = new HashMap<>();
+    private final long capturedAt = System.currentTimeMillis();
+    
+    public Quote resolve(String symbol, Function<String, Quote> loader) {
+        return quotes.computeIfAbsent(symbol, loader);
+    }
+    
+    public boolean contains(String symbol) {
+        return quotes.containsKey(symbol);
+    }
+    
+    public long getCapturedAt() {
+        return capturedAt;
+    }
+}
@@ -0,0 +1,37 @@
+package com.stockmarket.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+// MoneyControl feeds: generic RSS parsing plus MoneyControl's link quirks
+@Component
+public class MoneyControlRSSParser {
+
+    private static final String BASE_URL = "https://www.moneycontrol.com";
+
+    @Autowired
+    private RssFeedParser rssFeedParser;
+
+    public List<FeedArticle> parse(InputStream body) {
+        List<FeedArticle> articles = new ArrayList<>();
+        for (FeedArticle article : rssFeedParser.parse(body)) {
+            articles.add(new FeedArticle(article.title(), normalizeLink(article.link()),
+                article.description(), article.publishedAt()));
+        }
+        return articles;
+    }
+
+    // MoneyControl emits site-relative links and tracking query strings on some items
+    private String normalizeLink(String link) {
+        String normalized = link.trim();
+        if (normalized.startsWith("/")) {
+            normalized = BASE_URL + normalized;
+        }
+        int query = normalized.indexOf("?utm_");
+        return query > 0 ? normalized.substring(0, query) : normalized;
+    }
+}
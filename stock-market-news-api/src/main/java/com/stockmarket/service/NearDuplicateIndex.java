@@ -0,0 +1,191 @@
+package com.stockmarket.service;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+// MinHash signatures over headline and description words with LSH band buckets: finds a stored article whose
+// estimated word-set Jaccard similarity clears the threshold without scanning the corpus.
+// Not thread-safe; NewsStore only touches it under its own lock.
+public class NearDuplicateIndex {
+
+    // 20 bands of 3 rows: pairs at 0.5 similarity share a band ~93% of the time, unrelated stories rarely do
+    private static final int BANDS = 20;
+    private static final int ROWS = 3;
+    public static final int SIGNATURE_SIZE = BANDS * ROWS;
+
+    // Buckets of generic market vocabulary would grow with the corpus; syndicated copies arrive within hours of
+    // each other, so a bucket keeps only its newest entries and lookups stay bounded however large the store gets
+    private static final int MAX_BUCKET_SIZE = 32;
+
+    private static final long[] SEEDS = new long[SIGNATURE_SIZE];
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5EEDL);
+        for (int i = 0; i < SIGNATURE_SIZE; i++) {
+            SEEDS[i] = random.nextLong();
+        }
+    }
+
+    // Filler words carry no signal and would pull unrelated headlines together
+    private static final Set<String> STOP_WORDS = Set.of(
+        "a", "an", "the", "and", "or", "of", "to", "in", "on", "for", "at", "by", "with", "from", "as",
+        "is", "are", "was", "were", "be", "its", "it", "this", "that", "after", "over", "amid", "says", "said");
+
+    private final double similarityThreshold;
+
+    // Bucket key (band index, band rows) -> article keys with that band; collisions only add candidates to verify
+    private final Map<Long, List<String>> buckets = new HashMap<>();
+    private final Map<String, int[]> signatures = new HashMap<>();
+
+    public NearDuplicateIndex(double similarityThreshold) {
+        this.similarityThreshold = similarityThreshold;
+    }
+
+    // Null when the text has no usable words
+    public static int[] signature(String headline, String description) {
+        Set<String> words = new HashSet<>();
+        addWords(words, headline);
+        addWords(words, description);
+        if (words.isEmpty()) {
+            return null;
+        }
+
+        int[] signature = new int[SIGNATURE_SIZE];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (String word : words) {
+            long wordHash = hash64(word);
+            for (int i = 0; i < SIGNATURE_SIZE; i++) {
+                int value = (int) (mix(wordHash ^ SEEDS[i]) >>> 33);
+                if (value < signature[i]) {
+                    signature[i] = value;
+                }
+            }
+        }
+        return signature;
+    }
+
+    // Key of the most similar stored article at or above the threshold that the caller accepts, or null when there is none
+    public String findNearDuplicate(int[] signature, Predicate<String> eligible) {
+        if (signature == null) {
+            return null;
+        }
+        String best = null;
+        double bestSimilarity = similarityThreshold;
+        Set<String> checked = new HashSet<>();
+        for (int band = 0; band < BANDS; band++) {
+            List<String> candidates = buckets.get(bucketKey(band, signature));
+            if (candidates == null) {
+                continue;
+            }
+            for (String candidate : candidates) {
+                if (!checked.add(candidate)) {
+                    continue;
+                }
+                double similarity = similarity(signatures.get(candidate), signature);
+                if (similarity >= bestSimilarity && eligible.test(candidate)) {
+                    best = candidate;
+                    bestSimilarity = similarity;
+                }
+            }
+        }
+        return best;
+    }
+
+    public void add(String key, int[] signature) {
+        if (signature == null || signatures.putIfAbsent(key, signature) != null) {
+            return;
+        }
+        for (int band = 0; band < BANDS; band++) {
+            List<String> bucket = buckets.computeIfAbsent(bucketKey(band, signature), bucketKey -> new ArrayList<>(2));
+            bucket.add(key);
+            if (bucket.size() > MAX_BUCKET_SIZE) {
+                bucket.remove(0);
+            }
+        }
+    }
+
+    public void remove(String key) {
+        int[] signature = signatures.remove(key);
+        if (signature == null) {
+            return;
+        }
+        for (int band = 0; band < BANDS; band++) {
+            long bucketKey = bucketKey(band, signature);
+            List<String> bucket = buckets.get(bucketKey);
+            if (bucket != null) {
+                bucket.remove(key);
+                if (bucket.isEmpty()) {
+                    buckets.remove(bucketKey);
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return signatures.size();
+    }
+
+    // Fraction of matching MinHash rows estimates the Jaccard similarity of the word sets
+    private static double similarity(int[] a, int[] b) {
+        int equal = 0;
+        for (int i = 0; i < SIGNATURE_SIZE; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / SIGNATURE_SIZE;
+    }
+
+    private static long bucketKey(int band, int[] signature) {
+        long hash = band;
+        for (int row = band * ROWS; row < (band + 1) * ROWS; row++) {
+            hash = mix(hash * 31 + signature[row]);
+        }
+        return hash;
+    }
+
+    // Lower-cased words without stop words, with a crude plural strip so "banks" and "bank" agree
+    static void addWords(Collection<String> words, String text) {
+        if (text == null) {
+            return;
+        }
+        int length = text.length();
+        int start = -1;
+        for (int i = 0; i <= length; i++) {
+            boolean wordChar = i < length && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String word = text.substring(start, i).toLowerCase(Locale.ROOT);
+                start = -1;
+                if (word.length() < 2 || STOP_WORDS.contains(word)) {
+                    continue;
+                }
+                if (word.length() > 3 && word.endsWith("s")) {
+                    word = word.substring(0, word.length() - 1);
+                }
+                words.add(word);
+            }
+        }
+    }
+
+    // FNV-1a over the word's characters
+    private static long hash64(String word) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < word.length(); i++) {
+            hash ^= word.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    // Murmur3 finalizer: spreads every input bit over the whole output
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb93fe1a85ec5L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,31 @@
+package com.stockmarket.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+// Exposes news store size and per-feed polling cadence under /actuator/health (newsFeeds component)
+@Component("newsFeeds")
+public class NewsFeedsHealthIndicator implements HealthIndicator {
+    
+    @Autowired
+    private NewsStore newsStore;
+    
+    @Autowired
+    private FeedScheduler feedScheduler;
+    
+    @Override
+    public Health health() {
+        // Generated fallback news keeps /news answering, so an empty store stays UP and is only flagged in the details
+        Health.Builder health = Health.up().withDetail("degraded", newsStore.isEmpty());
+        if (newsStore.isEmpty()) {
+            health.withDetail("reason", "No real news articles ingested yet");
+        }
+        return health
+            .withDetail("articles", newsStore.size())
+            .withDetail("lastUpdate", newsStore.getLastUpdateMillis())
+            .withDetail("feeds", feedScheduler.getStatus())
+            .build();
+    }
+}
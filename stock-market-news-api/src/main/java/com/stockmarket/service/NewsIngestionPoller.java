@@ -0,0 +1,27 @@
+package com.stockmarket.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// Fills the news store in the background so /news never waits on upstream feeds
+@Component
+public class NewsIngestionPoller {
+    
+    private static final Logger logger = LoggerFactory.getLogger(NewsIngestionPoller.class);
+    
+    @Autowired
+    private StockNewsService stockNewsService;
+    
+    @Scheduled(fixedDelayString = "${news.ingest.tick-millis:5000}")
+    public void poll() {
+        // Each tick only fetches the feeds the scheduler has marked due
+        try {
+            stockNewsService.ingestLatestNews();
+        } catch (Exception e) {
+            logger.warn("⚠️ News ingestion failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package com.stockmarket.service;
+
+import java.util.*;
+
+// Inverted index over stored stories: per word (and per linked symbol) a posting list of ascending document ids,
+// delta-encoded as varints with one flag byte each, appended as stories are ingested.
+// Searches only read, so they may run side by side; NewsStore keeps them apart from writes with its read/write lock.
+public class NewsSearchIndex {
+
+    private static final int IN_HEADLINE = 1;
+    private static final int IN_DESCRIPTION = 2;
+
+    // Symbol postings share the map with words; the prefix cannot occur in a word
+    private static final String SYMBOL_TERM = "symbol:";
+
+    // Removed documents leave holes; once they outnumber live ones the index is rebuilt with dense ids
+    private static final int MIN_DOCS_BEFORE_COMPACTION = 64;
+
+    // Filter fields are lower-cased once here so a filter-only query over every story stays cheap
+    private record Document(String key, long publishedMillis, Map<String, Object> item, Set<String> sources, String sentiment) {
+
+        static Document of(String key, long publishedMillis, Map<String, Object> item) {
+            return new Document(key, publishedMillis, item, sourcesOf(item), String.valueOf(item.get("sentiment")).toLowerCase());
+        }
+    }
+
+    private static class Postings {
+        byte[] bytes = new byte[8];
+        int length;
+        int count;
+        int lastDocument = -1;
+
+        void add(int document, int flags) {
+            ensureCapacity(6);
+            int delta = document - lastDocument;
+            while ((delta & ~0x7F) != 0) {
+                bytes[length++] = (byte) ((delta & 0x7F) | 0x80);
+                delta >>>= 7;
+            }
+            bytes[length++] = (byte) delta;
+            bytes[length++] = (byte) flags;
+            lastDocument = document;
+            count++;
+        }
+
+        void ensureCapacity(int extra) {
+            if (length + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extra));
+            }
+        }
+    }
+
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final List<Document> documents = new ArrayList<>();
+    private final Map<String, Integer> documentIds = new HashMap<>();
+    private final double decayPerMilli;
+
+    public NewsSearchIndex(long recencyHalfLifeMillis) {
+        this.decayPerMilli = Math.log(2) / Math.max(1, recencyHalfLifeMillis);
+    }
+
+    public void add(String key, long publishedMillis, Map<String, Object> item) {
+        if (documentIds.containsKey(key)) {
+            update(key, item);
+            return;
+        }
+        int document = documents.size();
+        documents.add(Document.of(key, publishedMillis, item));
+        documentIds.put(key, document);
+        index(document, item);
+    }
+
+    // Folding a duplicate changes the story's sources, not its text, so only the stored item is swapped
+    public void update(String key, Map<String, Object> item) {
+        Integer document = documentIds.get(key);
+        if (document != null) {
+            Document existing = documents.get(document);
+            documents.set(document, Document.of(key, existing.publishedMillis(), item));
+        }
+    }
+
+    public void remove(String key) {
+        Integer document = documentIds.remove(key);
+        if (document == null) {
+            return;
+        }
+        documents.set(document, null);
+        if (documents.size() > MIN_DOCS_BEFORE_COMPACTION && documents.size() > 2 * documentIds.size()) {
+            compact();
+        }
+    }
+
+    public int size() {
+        return documentIds.size();
+    }
+
+    // True when the text holds at least one indexable word, i.e. not only stop words or punctuation
+    public static boolean hasSearchableWords(String text) {
+        List<String> words = new ArrayList<>();
+        NearDuplicateIndex.addWords(words, text);
+        return !words.isEmpty();
+    }
+
+    public NewsSearchResult search(NewsSearchQuery query, long now) {
+        // Text that normalises to nothing ("the") matches nothing rather than falling through to filters only
+        if (query.text() != null && !hasSearchableWords(query.text())) {
+            return new NewsSearchResult(0, List.of());
+        }
+        List<String> terms = termsOf(query);
+        int[] candidates;
+        double[] relevance;
+
+        if (terms.isEmpty()) {
+            // Filters only: every live story is a candidate and recency alone ranks them
+            candidates = new int[documentIds.size()];
+            int count = 0;
+            for (int document = 0; document < documents.size(); document++) {
+                if (documents.get(document) != null) {
+                    candidates[count++] = document;
+                }
+            }
+            relevance = new double[count];
+            Arrays.fill(relevance, 1.0);
+        } else {
+            // Rarest term first, so the running intersection starts as small as possible
+            List<Postings> lists = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                Postings list = postings.get(term);
+                if (list == null) {
+                    return new NewsSearchResult(0, List.of());
+                }
+                lists.add(list);
+            }
+            lists.sort(Comparator.comparingInt(list -> list.count));
+
+            candidates = new int[lists.get(0).count];
+            relevance = new double[candidates.length];
+            int count = decode(lists.get(0), candidates, relevance, idf(lists.get(0)));
+            for (int i = 1; i < lists.size() && count > 0; i++) {
+                count = intersect(lists.get(i), candidates, relevance, count, idf(lists.get(i)));
+            }
+            candidates = Arrays.copyOf(candidates, count);
+            relevance = Arrays.copyOf(relevance, count);
+        }
+
+        // Only the best page is kept: a min-heap of at most limit candidates, weakest (then oldest) on top
+        double[] scores = relevance;
+        int[] matched = candidates;
+        Comparator<Integer> weakestFirst = (x, y) -> {
+            int byScore = Double.compare(scores[x], scores[y]);
+            return byScore != 0 ? byScore : Long.compare(documents.get(matched[x]).publishedMillis(), documents.get(matched[y]).publishedMillis());
+        };
+        PriorityQueue<Integer> best = new PriorityQueue<>(query.limit() + 1, weakestFirst);
+        String source = query.source() != null ? query.source().toLowerCase() : null;
+        String sentiment = query.sentiment() != null ? query.sentiment().toLowerCase() : null;
+        int total = 0;
+        for (int i = 0; i < candidates.length; i++) {
+            Document document = documents.get(candidates[i]);
+            if (document == null || !matchesFilters(document, query, source, sentiment)) {
+                continue;
+            }
+            total++;
+            // Relevance decays with age: a story one half-life old needs twice the relevance to rank level
+            double age = Math.max(0, now - document.publishedMillis());
+            scores[i] = relevance[i] * Math.exp(-age * decayPerMilli);
+            if (best.size() < query.limit()) {
+                best.add(i);
+            } else if (weakestFirst.compare(i, best.peek()) > 0) {
+                best.poll();
+                best.add(i);
+            }
+        }
+
+        // The heap yields the weakest first, so the page is filled back to front
+        List<Map<String, Object>> page = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            page.add(documents.get(candidates[best.poll()]).item());
+        }
+        Collections.reverse(page);
+        return new NewsSearchResult(total, Collections.unmodifiableList(page));
+    }
+
+    private void index(int document, Map<String, Object> item) {
+        Map<String, Integer> terms = new LinkedHashMap<>();
+        addTerms(terms, item.get("headline"), IN_HEADLINE);
+        addTerms(terms, item.get("description"), IN_DESCRIPTION);
+        for (String symbol : symbolsOf(item)) {
+            terms.merge(SYMBOL_TERM + symbol, IN_HEADLINE, (a, b) -> a | b);
+        }
+        for (Map.Entry<String, Integer> term : terms.entrySet()) {
+            postings.computeIfAbsent(term.getKey(), key -> new Postings()).add(document, term.getValue());
+        }
+    }
+
+    private void addTerms(Map<String, Integer> terms, Object text, int flag) {
+        if (text == null) {
+            return;
+        }
+        List<String> words = new ArrayList<>();
+        NearDuplicateIndex.addWords(words, text.toString());
+        for (String word : words) {
+            terms.merge(word, flag, (a, b) -> a | b);
+        }
+    }
+
+    private void compact() {
+        List<Document> live = new ArrayList<>(documentIds.size());
+        for (Document document : documents) {
+            if (document != null) {
+                live.add(document);
+            }
+        }
+        postings.clear();
+        documents.clear();
+        documentIds.clear();
+        for (Document document : live) {
+            add(document.key(), document.publishedMillis(), document.item());
+        }
+    }
+
+    // Query words go through the same normalisation as indexed text; a symbol filter is one more required term
+    private List<String> termsOf(NewsSearchQuery query) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (query.text() != null) {
+            NearDuplicateIndex.addWords(terms, query.text());
+        }
+        if (query.symbol() != null) {
+            terms.add(SYMBOL_TERM + query.symbol().toUpperCase());
+        }
+        return new ArrayList<>(terms);
+    }
+
+    private double idf(Postings list) {
+        return Math.log(1.0 + (double) documentIds.size() / list.count);
+    }
+
+    // A headline hit counts double a description-only hit
+    private static double weight(int flags) {
+        return (flags & IN_HEADLINE) != 0 ? 2.0 : 1.0;
+    }
+
+    // Sequential reader over a posting list
+    private static class Cursor {
+        final Postings list;
+        int position;
+        int remaining;
+        int document = -1;
+        int flags;
+
+        Cursor(Postings list) {
+            this.list = list;
+            this.remaining = list.count;
+        }
+
+        boolean next() {
+            if (remaining == 0) {
+                return false;
+            }
+            int delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = list.bytes[position++];
+                delta |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            document += delta;
+            flags = list.bytes[position++];
+            remaining--;
+            return true;
+        }
+    }
+
+    private static int decode(Postings list, int[] documents, double[] relevance, double idf) {
+        Cursor cursor = new Cursor(list);
+        int count = 0;
+        while (cursor.next()) {
+            documents[count] = cursor.document;
+            relevance[count] = idf * weight(cursor.flags);
+            count++;
+        }
+        return count;
+    }
+
+    // Keeps the candidates that also appear in the list, in place; both sides are in ascending document order
+    private static int intersect(Postings list, int[] candidates, double[] relevance, int count, double idf) {
+        Cursor cursor = new Cursor(list);
+        int kept = 0;
+        int candidate = 0;
+        while (candidate < count && cursor.next()) {
+            while (candidate < count && candidates[candidate] < cursor.document) {
+                candidate++;
+            }
+            if (candidate < count && candidates[candidate] == cursor.document) {
+                candidates[kept] = cursor.document;
+                relevance[kept] = relevance[candidate] + idf * weight(cursor.flags);
+                kept++;
+                candidate++;
+            }
+        }
+        return kept;
+    }
+
+    private boolean matchesFilters(Document document, NewsSearchQuery query, String source, String sentiment) {
+        if (query.fromMillis() != null && document.publishedMillis() < query.fromMillis()) {
+            return false;
+        }
+        if (query.toMillis() != null && document.publishedMillis() > query.toMillis()) {
+            return false;
+        }
+        if (sentiment != null && !sentiment.equals(document.sentiment())) {
+            return false;
+        }
+        return source == null || document.sources().contains(source);
+    }
+
+    // A folded story matches any of the sources that carried it
+    private static Set<String> sourcesOf(Map<String, Object> item) {
+        Set<String> sources = new HashSet<>(4);
+        if (item.get("source") != null) {
+            sources.add(item.get("source").toString().toLowerCase());
+        }
+        if (item.get("sources") instanceof List<?> carried) {
+            for (Object entry : carried) {
+                if (entry instanceof Map<?, ?> source && source.get("source") != null) {
+                    sources.add(source.get("source").toString().toLowerCase());
+                }
+            }
+        }
+        return sources;
+    }
+
+    private static Set<String> symbolsOf(Map<String, Object> item) {
+        Set<String> symbols = new LinkedHashSet<>();
+        if (item.get("symbol") != null) {
+            symbols.add(item.get("symbol").toString().toUpperCase());
+        }
+        if (item.get("symbols") instanceof List<?> linked) {
+            for (Object entry : linked) {
+                if (entry instanceof Map<?, ?> entity && entity.get("symbol") != null) {
+                    symbols.add(entity.get("symbol").toString().toUpperCase());
+                }
+            }
+        }
+        return symbols;
+    }
+}
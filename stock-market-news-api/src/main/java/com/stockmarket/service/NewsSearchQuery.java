@@ -0,0 +1,13 @@
+package com.stockmarket.service;
+
+// Filters for /news/search; null fields do not filter. Text words must all appear in the headline or description.
+public record NewsSearchQuery(
+    String text,
+    String symbol,
+    String source,
+    String sentiment,
+    Long fromMillis,
+    Long toMillis,
+    int limit
+) {
+}
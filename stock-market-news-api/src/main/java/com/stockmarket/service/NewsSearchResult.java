@@ -0,0 +1,8 @@
+package com.stockmarket.service;
+
+import java.util.List;
+import java.util.Map;
+
+// One page of ranked stories; total counts every story that matched the filters
+public record NewsSearchResult(int total, List<Map<String, Object>> items) {
+}
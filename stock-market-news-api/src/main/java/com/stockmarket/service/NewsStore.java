@@ -0,0 +1,307 @@
+package com.stockmarket.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Deduplicated, publish-time ordered news collection filled by the ingestion poller and read by /news without I/O
+@Component
+public class NewsStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(NewsStore.class);
+
+    // A story is the first article seen plus any near-duplicates folded into it; aliases are their keys and sources
+    // their source and url entries, also published on the item as "sources"
+    private record StoredArticle(String key, long publishedMillis, Map<String, Object> item, List<String> aliases,
+                                 List<Map<String, Object>> sources) {
+    }
+
+    private static final Comparator<StoredArticle> NEWEST_FIRST =
+        Comparator.comparingLong(StoredArticle::publishedMillis).reversed().thenComparing(StoredArticle::key);
+
+    @Value("${news.store.max-items:5000}")
+    private int maxItems;
+
+    @Value("${news.store.retention:7d}")
+    private Duration retention;
+
+    // Writers merge under the write lock and publish an immutable newest-first snapshot for readers; stories are kept
+    // in publish order as they arrive, so a merge never re-sorts the store. Searches share the read lock.
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, StoredArticle> byKey = new HashMap<>();
+    private final NavigableSet<StoredArticle> ordered = new TreeSet<>(NEWEST_FIRST);
+    private final Map<String, String> aliasToKey = new HashMap<>();
+    private final NearDuplicateIndex duplicateIndex;
+    private final NewsSearchIndex searchIndex;
+    private final long duplicateWindowMillis;
+    private volatile List<Map<String, Object>> newestFirst = List.of();
+    private volatile List<Map<String, Object>> fallback = List.of();
+    private volatile long lastUpdateMillis = 0L;
+
+    public NewsStore(@Value("${news.dedup.similarity:0.5}") double duplicateSimilarity,
+                     @Value("${news.dedup.window:24h}") Duration duplicateWindow,
+                     @Value("${news.search.recency-half-life:24h}") Duration recencyHalfLife) {
+        this.duplicateIndex = new NearDuplicateIndex(duplicateSimilarity);
+        this.duplicateWindowMillis = duplicateWindow.toMillis();
+        this.searchIndex = new NewsSearchIndex(recencyHalfLife.toMillis());
+    }
+
+    // Returns how many incoming articles were new, whether stored as stories or folded into an existing one
+    public int merge(List<Map<String, Object>> items) {
+        lock.writeLock().lock();
+        try {
+            return mergeLocked(items);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int mergeLocked(List<Map<String, Object>> items) {
+        long now = System.currentTimeMillis();
+        long cutoff = now - retention.toMillis();
+        int added = 0;
+        int folded = 0;
+        for (Map<String, Object> item : items) {
+            String key = keyOf(item);
+            if (key == null || byKey.containsKey(key) || aliasToKey.containsKey(key)) {
+                continue;
+            }
+            // Already past retention: it would be evicted straight away, so it is neither indexed nor counted
+            long publishedMillis = publishedMillisOf(item, now);
+            if (publishedMillis < cutoff) {
+                continue;
+            }
+
+            // The same wire story syndicated across sources collapses into one story listing every source. Only another
+            // source's copy published close in time folds, so a templated daily headline from one feed stays separate.
+            int[] signature = NearDuplicateIndex.signature(textOf(item, "headline"), textOf(item, "description"));
+            String source = textOf(item, "source");
+            String duplicateOf = duplicateIndex.findNearDuplicate(signature,
+                candidate -> canFold(byKey.get(candidate), source, publishedMillis));
+            if (duplicateOf != null) {
+                foldInto(byKey.get(duplicateOf), key, item);
+                folded++;
+                continue;
+            }
+
+            Map<String, Object> stored = new LinkedHashMap<>(item);
+            // Feed positions change between polls, so ids are derived from the article itself
+            stored.put("id", idOf(key));
+            List<Map<String, Object>> sources = List.of(sourceEntry(item));
+            stored.put("sources", sources);
+            StoredArticle article = new StoredArticle(key, publishedMillis, Collections.unmodifiableMap(stored), List.of(), sources);
+            byKey.put(key, article);
+            ordered.add(article);
+            duplicateIndex.add(key, signature);
+            searchIndex.add(key, article.publishedMillis(), article.item());
+            added++;
+        }
+
+        // Bounded retention: drop anything past the age limit, then the oldest beyond the size limit
+        while (!ordered.isEmpty() && (ordered.size() > maxItems || ordered.last().publishedMillis() < cutoff)) {
+            evict(ordered.pollLast());
+        }
+        List<Map<String, Object>> snapshot = new ArrayList<>(ordered.size());
+        for (StoredArticle article : ordered) {
+            snapshot.add(article.item());
+        }
+
+        newestFirst = Collections.unmodifiableList(snapshot);
+        lastUpdateMillis = now;
+        logger.debug("🗞️ Merged {} new stories and folded {} duplicates, {} held", added, folded, snapshot.size());
+        return added + folded;
+    }
+
+    public List<Map<String, Object>> latest(int limit) {
+        List<Map<String, Object>> snapshot = newestFirst;
+        return snapshot.subList(0, Math.min(limit, snapshot.size()));
+    }
+
+    // Newest stories linked to the symbol, scanning the snapshot newest first until the page is full
+    public List<Map<String, Object>> latestForSymbol(String symbol, int limit) {
+        List<Map<String, Object>> matches = new ArrayList<>(Math.min(limit, 16));
+        for (Map<String, Object> item : newestFirst) {
+            if (matches.size() >= limit) {
+                break;
+            }
+            if (mentions(item, symbol)) {
+                matches.add(item);
+            }
+        }
+        return matches;
+    }
+
+    public NewsSearchResult search(NewsSearchQuery query) {
+        lock.readLock().lock();
+        try {
+            return searchIndex.search(query, System.currentTimeMillis());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Generated news served only while no real article has been ingested
+    public void replaceFallback(List<Map<String, Object>> items) {
+        fallback = List.copyOf(items);
+    }
+
+    public List<Map<String, Object>> getFallback() {
+        return fallback;
+    }
+
+    public boolean isEmpty() {
+        return newestFirst.isEmpty();
+    }
+
+    public int size() {
+        return newestFirst.size();
+    }
+
+    public long getLastUpdateMillis() {
+        return lastUpdateMillis;
+    }
+
+    private boolean mentions(Map<String, Object> item, String symbol) {
+        if (symbol.equals(item.get("symbol"))) {
+            return true;
+        }
+        if (item.get("symbols") instanceof List<?> symbols) {
+            for (Object entry : symbols) {
+                if (entry instanceof Map<?, ?> linked && symbol.equals(linked.get("symbol"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean canFold(StoredArticle story, String source, long publishedMillis) {
+        if (Math.abs(story.publishedMillis() - publishedMillis) > duplicateWindowMillis) {
+            return false;
+        }
+        return story.sources().stream().noneMatch(existing -> existing.get("source").equals(source));
+    }
+
+    private void foldInto(StoredArticle story, String key, Map<String, Object> item) {
+        Map<String, Object> merged = new LinkedHashMap<>(story.item());
+        List<Map<String, Object>> sources = new ArrayList<>(story.sources());
+        Map<String, Object> source = sourceEntry(item);
+        if (sources.stream().noneMatch(existing -> existing.get("url").equals(source.get("url")))) {
+            sources.add(source);
+        }
+        sources = List.copyOf(sources);
+        merged.put("sources", sources);
+
+        List<String> aliases = new ArrayList<>(story.aliases());
+        aliases.add(key);
+        StoredArticle updated = new StoredArticle(story.key(), story.publishedMillis(),
+            Collections.unmodifiableMap(merged), List.copyOf(aliases), sources);
+        byKey.put(story.key(), updated);
+        ordered.remove(story);
+        ordered.add(updated);
+        aliasToKey.put(key, story.key());
+        searchIndex.update(story.key(), updated.item());
+    }
+
+    private void evict(StoredArticle article) {
+        byKey.remove(article.key());
+        for (String alias : article.aliases()) {
+            aliasToKey.remove(alias);
+        }
+        duplicateIndex.remove(article.key());
+        searchIndex.remove(article.key());
+    }
+
+    private Map<String, Object> sourceEntry(Map<String, Object> item) {
+        return Map.of("source", textOf(item, "source"), "url", textOf(item, "url"));
+    }
+
+    private String textOf(Map<String, Object> item, String field) {
+        Object value = item.get(field);
+        return value != null ? value.toString() : "";
+    }
+
+    // 64 bits of SHA-256 over the canonical key: stable across restarts, and collisions stay negligible at store sizes
+    private static String idOf(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return "news-" + HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Articles are identified by URL, falling back to the headline
+    private String keyOf(Map<String, Object> item) {
+        Object url = item.get("url");
+        if (url != null && !url.toString().isBlank()) {
+            return canonicalUrl(url.toString().trim());
+        }
+        Object headline = item.get("headline");
+        return headline != null ? headline.toString().trim().toLowerCase() : null;
+    }
+
+    // Only the scheme and host are case-insensitive. The path and any article id in the query (?id=, msid=) are kept
+    // as published; the fragment, a trailing slash and utm_* tracking parameters are dropped.
+    private static String canonicalUrl(String url) {
+        URI uri;
+        try {
+            uri = new URI(url);
+        } catch (URISyntaxException e) {
+            int fragment = url.indexOf('#');
+            return fragment > 0 ? url.substring(0, fragment) : url;
+        }
+        if (uri.getScheme() == null || uri.getRawAuthority() == null) {
+            return uri.getRawFragment() != null ? url.substring(0, url.indexOf('#')) : url;
+        }
+
+        StringBuilder key = new StringBuilder(url.length());
+        key.append(uri.getScheme().toLowerCase()).append("://").append(uri.getRawAuthority().toLowerCase());
+        String path = uri.getRawPath() != null ? uri.getRawPath() : "";
+        key.append(path.endsWith("/") ? path.substring(0, path.length() - 1) : path);
+        if (uri.getRawQuery() != null) {
+            StringJoiner query = new StringJoiner("&", "?", "").setEmptyValue("");
+            for (String parameter : uri.getRawQuery().split("&")) {
+                if (!parameter.isEmpty() && !parameter.toLowerCase().startsWith("utm_")) {
+                    query.add(parameter);
+                }
+            }
+            key.append(query);
+        }
+        return key.toString();
+    }
+
+    // RSS uses RFC 1123 dates, Atom and NewsAPI ISO-8601; unparseable or future dates fall back to first-seen time
+    private long publishedMillisOf(Map<String, Object> item, long now) {
+        Object publishedAt = item.get("publishedAt");
+        if (publishedAt != null) {
+            String value = publishedAt.toString().trim();
+            try {
+                return Math.min(now, ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli());
+            } catch (DateTimeParseException e) {
+                try {
+                    return Math.min(now, OffsetDateTime.parse(value).toInstant().toEpochMilli());
+                } catch (DateTimeParseException ignored) {
+                    // fall through to the ingest time
+                }
+            }
+        }
+        Object timestamp = item.get("timestamp");
+        return timestamp instanceof Number number ? Math.min(now, number.longValue()) : now;
+    }
+}
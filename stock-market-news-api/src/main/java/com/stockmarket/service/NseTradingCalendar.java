@@ -0,0 +1,199 @@
+package com.stockmarket.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// NSE session timings and trading holidays loaded from a local calendar file at startup
+@Component
+public class NseTradingCalendar {
+
+    private static final Logger logger = LoggerFactory.getLogger(NseTradingCalendar.class);
+
+    // Bounds for walking to the previous close / next open across long weekends and holiday runs
+    private static final int MAX_DAYS_SCANNED = 14;
+
+    // Warn this long before the published holiday list runs out
+    private static final int COVERAGE_WARNING_DAYS = 30;
+
+    public record SessionWindow(String name, LocalTime start, LocalTime end) {
+    }
+
+    @Value("${marketdata.calendar.location:classpath:data/nse-calendar.csv}")
+    private Resource calendarFile;
+
+    private ZoneId zone = ZoneId.of("Asia/Kolkata");
+    private List<SessionWindow> sessions = List.of();
+    private Map<LocalDate, String> holidays = Map.of();
+    private Map<LocalDate, SessionWindow> specialSessions = Map.of();
+    private LocalDate publishedThrough;
+    private final AtomicBoolean warnedPastCoverage = new AtomicBoolean();
+
+    @PostConstruct
+    void load() throws IOException {
+        List<SessionWindow> windows = new ArrayList<>();
+        Map<LocalDate, String> holidayIndex = new HashMap<>();
+        Map<LocalDate, SessionWindow> specialIndex = new HashMap<>();
+        LocalDate coverage = null;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(calendarFile.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] columns = line.split(",", -1);
+                try {
+                    switch (columns[0].trim()) {
+                        case "timezone" -> zone = ZoneId.of(columns[1].trim());
+                        case "session" -> windows.add(new SessionWindow(columns[1].trim().toUpperCase(),
+                            LocalTime.parse(columns[2].trim()), LocalTime.parse(columns[3].trim())));
+                        case "holiday" -> holidayIndex.put(LocalDate.parse(columns[1].trim()),
+                            columns.length > 2 ? columns[2].trim() : "Trading Holiday");
+                        case "special" -> specialIndex.put(LocalDate.parse(columns[1].trim()), new SessionWindow(
+                            columns[2].trim().toUpperCase(), LocalTime.parse(columns[3].trim()), LocalTime.parse(columns[4].trim())));
+                        case "published-through" -> coverage = LocalDate.parse(columns[1].trim());
+                        default -> logger.warn("⚠️ Skipping unknown calendar row: {}", line);
+                    }
+                } catch (RuntimeException e) {
+                    logger.warn("⚠️ Skipping malformed calendar row: {}", line);
+                }
+            }
+        }
+
+        if (windows.isEmpty()) {
+            throw new IllegalStateException("No sessions defined in trading calendar " + calendarFile.getDescription());
+        }
+        windows.sort(Comparator.comparing(SessionWindow::start));
+        this.sessions = List.copyOf(windows);
+        this.holidays = holidayIndex;
+        this.specialSessions = specialIndex;
+        // Without an explicit row the calendar is trusted to the end of the last year it lists holidays for
+        this.publishedThrough = coverage != null ? coverage
+            : holidayIndex.keySet().stream().max(Comparator.naturalOrder()).map(date -> LocalDate.of(date.getYear(), 12, 31)).orElse(null);
+        logger.info("📅 Loaded {} sessions, {} holidays and {} special sessions from trading calendar {}, published through {}",
+            windows.size(), holidayIndex.size(), specialIndex.size(), calendarFile.getDescription(), publishedThrough);
+
+        LocalDate today = LocalDate.now(zone);
+        if (publishedThrough == null || publishedThrough.isBefore(today)) {
+            warnPastCoverage(today);
+        } else if (publishedThrough.isBefore(today.plusDays(COVERAGE_WARNING_DAYS))) {
+            logger.warn("⚠️ Trading calendar {} runs out on {}; add the next NSE holiday list before then",
+                calendarFile.getDescription(), publishedThrough);
+        }
+    }
+
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    public boolean isWeekend(LocalDate date) {
+        DayOfWeek day = date.getDayOfWeek();
+        return day == DayOfWeek.SATURDAY || day == DayOfWeek.SUNDAY;
+    }
+
+    public boolean isHoliday(LocalDate date) {
+        if (publishedThrough == null || date.isAfter(publishedThrough)) {
+            warnPastCoverage(date);
+        }
+        return holidays.containsKey(date);
+    }
+
+    public boolean hasSpecialSession(LocalDate date) {
+        return specialSessions.containsKey(date);
+    }
+
+    public String getHolidayName(LocalDate date) {
+        return holidays.get(date);
+    }
+
+    // A special session (Muhurat trading) opens the market even on a weekend or holiday
+    public boolean isTradingDay(LocalDate date) {
+        return hasSpecialSession(date) || (!isWeekend(date) && !isHoliday(date));
+    }
+
+    // Session window covering the given wall-clock time on that date, or null between sessions
+    public SessionWindow findSession(LocalDate date, LocalTime time) {
+        for (SessionWindow window : sessionsOn(date)) {
+            if (!time.isBefore(window.start()) && time.isBefore(window.end())) {
+                return window;
+            }
+        }
+        return null;
+    }
+
+    public LocalTime getFirstSessionStart(LocalDate date) {
+        return sessionsOn(date).get(0).start();
+    }
+
+    // End of the continuous trading session, or of the last session when no REGULAR row is configured
+    public LocalTime getMarketClose(LocalDate date) {
+        List<SessionWindow> sessions = sessionsOn(date);
+        for (SessionWindow window : sessions) {
+            if ("REGULAR".equals(window.name())) {
+                return window.end();
+            }
+        }
+        return sessions.get(sessions.size() - 1).end();
+    }
+
+    // Most recent regular-session close at or before the given instant
+    public ZonedDateTime getPreviousClose(ZonedDateTime dateTime) {
+        ZonedDateTime local = dateTime.withZoneSameInstant(zone);
+        LocalDate date = local.toLocalDate();
+        for (int i = 0; i < MAX_DAYS_SCANNED; i++, date = date.minusDays(1)) {
+            if (!isTradingDay(date)) {
+                continue;
+            }
+            ZonedDateTime close = date.atTime(getMarketClose(date)).atZone(zone);
+            if (!close.isAfter(local)) {
+                return close;
+            }
+        }
+        return local.minusDays(MAX_DAYS_SCANNED);
+    }
+
+    // Start of the first session of the next trading day strictly after the given instant
+    public ZonedDateTime getNextSessionStart(ZonedDateTime dateTime) {
+        ZonedDateTime local = dateTime.withZoneSameInstant(zone);
+        LocalDate date = local.toLocalDate();
+        for (int i = 0; i < MAX_DAYS_SCANNED; i++, date = date.plusDays(1)) {
+            if (!isTradingDay(date)) {
+                continue;
+            }
+            ZonedDateTime open = date.atTime(getFirstSessionStart(date)).atZone(zone);
+            if (open.isAfter(local)) {
+                return open;
+            }
+        }
+        return local.plusDays(1);
+    }
+
+    private List<SessionWindow> sessionsOn(LocalDate date) {
+        SessionWindow special = specialSessions.get(date);
+        return special != null ? List.of(special) : sessions;
+    }
+
+    // Past the published list lunar holidays are unknown, so such days would be treated as trading days
+    private void warnPastCoverage(LocalDate date) {
+        if (warnedPastCoverage.compareAndSet(false, true)) {
+            logger.warn("⚠️ Trading calendar {} has no published NSE holidays for {} (published through {}); "
+                + "holidays will be missed until an updated calendar is configured", calendarFile.getDescription(), date, publishedThrough);
+        }
+    }
+}
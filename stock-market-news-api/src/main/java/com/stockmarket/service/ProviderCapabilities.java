@@ -0,0 +1,19 @@
+package com.stockmarket.service;
+
+import java.util.Set;
+
+// What a market data provider can do: batch size 1 means single-symbol only, 0 rate limits mean unmetered
+public record ProviderCapabilities(
+    int maxBatchSize,
+    int requestsPerMinute,
+    int requestsPerDay,
+    Set<String> fields
+) {
+    
+    public static final Set<String> FULL_QUOTE_FIELDS =
+        Set.of("price", "previousClose", "dayHigh", "dayLow", "volume", "changePercent");
+    
+    public boolean supportsBatch() {
+        return maxBatchSize > 1;
+    }
+}
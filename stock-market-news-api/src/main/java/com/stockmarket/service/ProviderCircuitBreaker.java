@@ -0,0 +1,159 @@
+package com.stockmarket.service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Circuit breaker for one upstream provider: CLOSED -> OPEN on a high rolling error/slow rate,
+// OPEN -> HALF_OPEN once a background probe is allowed, HALF_OPEN -> CLOSED/OPEN on the probe result
+public class ProviderCircuitBreaker {
+    
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+    
+    private static final byte OK = 0;
+    private static final byte SLOW = 1;
+    private static final byte ERROR = 2;
+    
+    private final String name;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long slowCallMillis;
+    private final long openMillis;
+    
+    private final byte[] outcomes;
+    private final LatencyTracker latency;
+    private int count;
+    private int next;
+    private int errors;
+    private int slowCalls;
+    
+    private State state = State.CLOSED;
+    private long openedAt;
+    private long totalCalls;
+    private long rejectedCalls;
+    
+    public ProviderCircuitBreaker(String name, int windowSize, int minimumCalls, double failureRateThreshold,
+                                  Duration slowCallThreshold, Duration openDuration) {
+        this.name = name;
+        this.outcomes = new byte[windowSize];
+        this.latency = new LatencyTracker(windowSize);
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallMillis = slowCallThreshold.toMillis();
+        this.openMillis = openDuration.toMillis();
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public LatencyTracker getLatency() {
+        return latency;
+    }
+    
+    // Only a closed circuit serves user traffic; half-open traffic is limited to the background probe
+    public synchronized boolean allowRequest() {
+        if (state == State.CLOSED) {
+            return true;
+        }
+        rejectedCalls++;
+        return false;
+    }
+    
+    // Moves an expired OPEN circuit to HALF_OPEN; the caller that wins this sends the probe
+    public synchronized boolean tryStartProbe() {
+        if (state == State.OPEN && System.currentTimeMillis() - openedAt >= openMillis) {
+            state = State.HALF_OPEN;
+            return true;
+        }
+        return false;
+    }
+    
+    public synchronized void abortProbe() {
+        if (state == State.HALF_OPEN) {
+            state = State.OPEN;
+        }
+    }
+    
+    public synchronized void recordSuccess(long latencyMillis) {
+        latency.record(latencyMillis);
+        if (state == State.HALF_OPEN) {
+            close();
+            return;
+        }
+        record(latencyMillis >= slowCallMillis ? SLOW : OK);
+    }
+    
+    public synchronized void recordFailure(long latencyMillis) {
+        latency.record(latencyMillis);
+        if (state == State.HALF_OPEN) {
+            open();
+            return;
+        }
+        record(ERROR);
+    }
+    
+    private void record(byte outcome) {
+        totalCalls++;
+        if (count == outcomes.length) {
+            forget(outcomes[next]);
+        } else {
+            count++;
+        }
+        outcomes[next] = outcome;
+        next = (next + 1) % outcomes.length;
+        if (outcome == ERROR) {
+            errors++;
+        } else if (outcome == SLOW) {
+            slowCalls++;
+        }
+        
+        if (state == State.CLOSED && count >= minimumCalls
+                && (rate(errors) >= failureRateThreshold || rate(slowCalls) >= failureRateThreshold)) {
+            open();
+        }
+    }
+    
+    private void forget(byte outcome) {
+        if (outcome == ERROR) {
+            errors--;
+        } else if (outcome == SLOW) {
+            slowCalls--;
+        }
+    }
+    
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.currentTimeMillis();
+    }
+    
+    private void close() {
+        state = State.CLOSED;
+        count = 0;
+        next = 0;
+        errors = 0;
+        slowCalls = 0;
+    }
+    
+    private double rate(int outcomeCount) {
+        return count == 0 ? 0.0 : outcomeCount * 100.0 / count;
+    }
+    
+    public synchronized State getState() {
+        return state;
+    }
+    
+    // Health score from 0 to 100: share of recent calls that were neither failed nor slow
+    public synchronized Map<String, Object> getHealth() {
+        Map<String, Object> health = new LinkedHashMap<>();
+        health.put("state", state.name());
+        health.put("score", Math.round(100.0 - rate(errors) - rate(slowCalls)));
+        health.put("errorRate", Math.round(rate(errors) * 10.0) / 10.0);
+        health.put("slowCallRate", Math.round(rate(slowCalls) * 10.0) / 10.0);
+        health.put("p95LatencyMs", latency.getPercentile(95));
+        health.put("windowCalls", count);
+        health.put("totalCalls", totalCalls);
+        health.put("rejectedCalls", rejectedCalls);
+        return health;
+    }
+}
@@ -0,0 +1,69 @@
+package com.stockmarket.service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Immutable quote with primitive price fields, shared by the cache, snapshots and services
+public record Quote(
+        String symbol,
+        double currentPrice,
+        double changePercent,
+        double dayHigh,
+        double dayLow,
+        double previousClose,
+        long volume,
+        long timestamp,
+        String source,
+        String dataSource,
+        String mockIndicator,
+        String note) {
+    
+    public static Quote of(String symbol, double currentPrice, double previousClose,
+                           double dayHigh, double dayLow, long volume, String source) {
+        double changePercent = previousClose != 0 ? ((currentPrice - previousClose) / previousClose) * 100 : 0.0;
+        return new Quote(symbol, round(currentPrice), round(changePercent), round(dayHigh), round(dayLow),
+                round(previousClose), volume, System.currentTimeMillis(), source, null, null, null);
+    }
+    
+    public Quote withDataSource(String dataSource, String mockIndicator) {
+        return new Quote(symbol, currentPrice, changePercent, dayHigh, dayLow, previousClose, volume,
+                timestamp, source, dataSource, mockIndicator, note);
+    }
+    
+    public Quote withNote(String note) {
+        return new Quote(symbol, currentPrice, changePercent, dayHigh, dayLow, previousClose, volume,
+                timestamp, source, dataSource, mockIndicator, note);
+    }
+    
+    public boolean isRealTime() {
+        return "REAL_TIME_API".equals(dataSource);
+    }
+    
+    // Map form kept for JSON responses and existing Map-based callers
+    public Map<String, Object> toMap() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("symbol", symbol);
+        data.put("currentPrice", currentPrice);
+        data.put("changePercent", changePercent);
+        data.put("dayHigh", dayHigh);
+        data.put("dayLow", dayLow);
+        data.put("previousClose", previousClose);
+        data.put("volume", volume);
+        data.put("timestamp", timestamp);
+        data.put("source", source);
+        if (dataSource != null) {
+            data.put("dataSource", dataSource);
+        }
+        if (mockIndicator != null) {
+            data.put("mockIndicator", mockIndicator);
+        }
+        if (note != null) {
+            data.put("note", note);
+        }
+        return data;
+    }
+    
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
@@ -0,0 +1,127 @@
+package com.stockmarket.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.invoke.VarHandle;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Latest quote per symbol in parallel primitive arrays, indexed by an interned int symbol id.
+// Writes are serialized; readers are lock-free and retry while a slot's sequence number is odd or changes.
+@Component
+public class QuoteBoard {
+    
+    private static final Logger logger = LoggerFactory.getLogger(QuoteBoard.class);
+    
+    private final int capacity;
+    private final Map<String, Integer> symbolIds = new ConcurrentHashMap<>();
+    private final String[] symbols;
+    private final AtomicLongArray sequences;
+    private final double[] lastPrices;
+    private final double[] dayHighs;
+    private final double[] dayLows;
+    private final double[] previousCloses;
+    private final long[] volumes;
+    private final long[] timestamps;
+    private final Object writeLock = new Object();
+    private volatile int size;
+    
+    public QuoteBoard(@Value("${marketdata.quote-board.capacity:4096}") int capacity, SymbolMaster symbolMaster) {
+        this.capacity = capacity;
+        this.symbols = new String[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        this.lastPrices = new double[capacity];
+        this.dayHighs = new double[capacity];
+        this.dayLows = new double[capacity];
+        this.previousCloses = new double[capacity];
+        this.volumes = new long[capacity];
+        this.timestamps = new long[capacity];
+        
+        // Master symbols keep their master id as board id; other symbols are appended on first publish
+        for (SymbolInfo info : symbolMaster.getAll()) {
+            if (info.id() < capacity) {
+                symbols[info.id()] = info.symbol();
+                symbolIds.put(info.symbol(), info.id());
+                size = info.id() + 1;
+            }
+        }
+    }
+    
+    // Returns -1 for symbols without a board slot
+    public int idOf(String symbol) {
+        Integer id = symbolIds.get(symbol);
+        return id != null ? id : -1;
+    }
+    
+    public String symbolOf(int id) {
+        return id >= 0 && id < size ? symbols[id] : null;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public void publish(Quote quote) {
+        synchronized (writeLock) {
+            int id = idOf(quote.symbol());
+            if (id < 0) {
+                if (size == capacity) {
+                    logger.warn("⚠️ Quote board full ({} symbols), not tracking {}", capacity, quote.symbol());
+                    return;
+                }
+                id = size;
+                symbols[id] = quote.symbol();
+                size = id + 1;
+                symbolIds.put(quote.symbol(), id);
+            }
+            
+            long sequence = sequences.get(id);
+            sequences.setRelease(id, sequence + 1);
+            VarHandle.storeStoreFence();
+            lastPrices[id] = quote.currentPrice();
+            dayHighs[id] = quote.dayHigh();
+            dayLows[id] = quote.dayLow();
+            previousCloses[id] = quote.previousClose();
+            volumes[id] = quote.volume();
+            timestamps[id] = quote.timestamp();
+            sequences.setRelease(id, sequence + 2);
+        }
+    }
+    
+    // Copies a consistent snapshot of one slot into the caller's reusable view
+    public boolean read(int id, QuoteView view) {
+        if (id < 0 || id >= size) {
+            return false;
+        }
+        while (true) {
+            long before = sequences.getAcquire(id);
+            view.lastPrice = lastPrices[id];
+            view.dayHigh = dayHighs[id];
+            view.dayLow = dayLows[id];
+            view.previousClose = previousCloses[id];
+            view.volume = volumes[id];
+            view.timestamp = timestamps[id];
+            VarHandle.loadLoadFence();
+            if ((before & 1) == 0 && before == sequences.getAcquire(id)) {
+                view.symbolId = id;
+                return before != 0;
+            }
+            Thread.onSpinWait();
+        }
+    }
+    
+    // Mutable holder so hot-path readers can reuse one instance instead of allocating per read
+    public static final class QuoteView {
+        public int symbolId = -1;
+        public double lastPrice;
+        public double dayHigh;
+        public double dayLow;
+        public double previousClose;
+        public long volume;
+        public long timestamp;
+    }
+}
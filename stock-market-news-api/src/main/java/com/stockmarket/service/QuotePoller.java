@@ -0,0 +1,59 @@
+package com.stockmarket.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+// Keeps the watchlist quotes warm so request threads are served from the cache
+@Component
+public class QuotePoller {
+    
+    private static final Logger logger = LoggerFactory.getLogger(QuotePoller.class);
+    
+    @Autowired
+    private RealTimeStockDataService realTimeStockDataService;
+    
+    @Autowired
+    private MarketSessionService marketSessionService;
+    
+    @Value("${marketdata.watchlist:RELIANCE,HDFCBANK,TCS,INFY,BHARTIARTL,ADANIGREEN,ITC}")
+    private List<String> watchlist;
+    
+    @Value("${marketdata.poller.trading-interval:15s}")
+    private Duration tradingInterval;
+    
+    private volatile long nextPollAt = 0L;
+    
+    @Scheduled(fixedDelayString = "${marketdata.poller.tick-millis:5000}")
+    public void poll() {
+        long now = System.currentTimeMillis();
+        if (now < nextPollAt) {
+            return;
+        }
+        
+        // Poll tightly while NSE is trading; after the close one final snapshot is taken and frozen,
+        // then the poller stays dormant until the next session opens (weekends and holidays included)
+        MarketSessionService.Session session = marketSessionService.getCurrentSession();
+        Duration ttl = marketSessionService.getQuoteTtl(session);
+        
+        try {
+            if (ttl == null) {
+                realTimeStockDataService.refreshStaleQuotes(watchlist);
+            } else {
+                realTimeStockDataService.refreshQuotes(watchlist);
+            }
+            logger.debug("📡 Polled {} watchlist quotes ({})", watchlist.size(), session.getLabel());
+        } catch (Exception e) {
+            logger.warn("⚠️ Watchlist quote poll failed: {}", e.getMessage());
+        } finally {
+            nextPollAt = ttl == null ? marketSessionService.getNextSessionStartMillis()
+                : System.currentTimeMillis() + (marketSessionService.isTradingSession() ? tradingInterval : ttl).toMillis();
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.stockmarket.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+// Streaming parsers for provider quote payloads: reads only the quote fields and skips everything else
+public final class QuoteResponseParser {
+    
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    
+    private QuoteResponseParser() {
+    }
+    
+    // Yahoo chart API: chart.result[0].meta; the large indicator arrays are skipped unread
+    public static Quote parseYahooChart(InputStream body, String symbol) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT || !seekField(parser, "chart")
+                    || parser.nextToken() != JsonToken.START_OBJECT || !seekField(parser, "result")
+                    || parser.nextToken() != JsonToken.START_ARRAY || parser.nextToken() != JsonToken.START_OBJECT
+                    || !seekField(parser, "meta") || parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            
+            double price = Double.NaN;
+            double previousClose = Double.NaN;
+            double dayHigh = Double.NaN;
+            double dayLow = Double.NaN;
+            long volume = -1L;
+            
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "regularMarketPrice" -> price = numberValue(parser, value);
+                    case "previousClose" -> previousClose = numberValue(parser, value);
+                    case "chartPreviousClose" -> {
+                        if (Double.isNaN(previousClose)) {
+                            previousClose = numberValue(parser, value);
+                        }
+                    }
+                    case "regularMarketDayHigh" -> dayHigh = numberValue(parser, value);
+                    case "regularMarketDayLow" -> dayLow = numberValue(parser, value);
+                    case "regularMarketVolume" -> volume = (long) numberValue(parser, value);
+                    default -> parser.skipChildren();
+                }
+            }
+            
+            return toQuote(symbol, price, previousClose, dayHigh, dayLow, volume, "Yahoo Finance API");
+        }
+    }
+    
+    // Alpha Vantage GLOBAL_QUOTE: all values arrive as strings under "Global Quote", which is empty for an unknown symbol
+    public static Quote parseAlphaVantageQuote(InputStream body, String symbol) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT || !seekField(parser, "Global Quote")) {
+                // Throttling and key errors come back as "Note"/"Information" payloads, which say nothing about the symbol
+                throw new IOException("Alpha Vantage response has no Global Quote");
+            }
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            
+            double price = Double.NaN;
+            double previousClose = Double.NaN;
+            double dayHigh = Double.NaN;
+            double dayLow = Double.NaN;
+            long volume = -1L;
+            
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "05. price" -> price = numberValue(parser, value);
+                    case "08. previous close" -> previousClose = numberValue(parser, value);
+                    case "03. high" -> dayHigh = numberValue(parser, value);
+                    case "04. low" -> dayLow = numberValue(parser, value);
+                    case "06. volume" -> volume = (long) numberValue(parser, value);
+                    default -> parser.skipChildren();
+                }
+            }
+            
+            return toQuote(symbol, price, previousClose, dayHigh, dayLow, volume, "Alpha Vantage");
+        }
+    }
+    
+    // Twelve Data /quote: flat object with string values; errors arrive as {"code", "message"} with status 200
+    public static Quote parseTwelveDataQuote(InputStream body, String symbol) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            
+            double price = Double.NaN;
+            double previousClose = Double.NaN;
+            double dayHigh = Double.NaN;
+            double dayLow = Double.NaN;
+            long volume = -1L;
+            double errorCode = Double.NaN;
+            String errorMessage = null;
+            
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "code" -> errorCode = numberValue(parser, value);
+                    case "message" -> errorMessage = parser.getText();
+                    case "close" -> price = numberValue(parser, value);
+                    case "previous_close" -> previousClose = numberValue(parser, value);
+                    case "high" -> dayHigh = numberValue(parser, value);
+                    case "low" -> dayLow = numberValue(parser, value);
+                    case "volume" -> volume = (long) numberValue(parser, value);
+                    default -> parser.skipChildren();
+                }
+            }
+            
+            // 400/404 reject the symbol itself; anything else (bad key, throttling, outage) is a failed call
+            if (!Double.isNaN(errorCode) && errorCode != 400 && errorCode != 404) {
+                throw new IOException("Twelve Data error " + (int) errorCode + ": " + errorMessage);
+            }
+            return toQuote(symbol, price, previousClose, dayHigh, dayLow, volume, "Twelve Data");
+        }
+    }
+    
+    // Advances within the current object to the named field, skipping the values of other fields
+    private static boolean seekField(JsonParser parser, String name) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            if (name.equals(parser.currentName())) {
+                return true;
+            }
+            parser.nextToken();
+            parser.skipChildren();
+        }
+        return false;
+    }
+    
+    private static double numberValue(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+            return parser.getDoubleValue();
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            try {
+                return Double.parseDouble(parser.getText().replace("%", "").trim());
+            } catch (NumberFormatException e) {
+                return Double.NaN;
+            }
+        }
+        parser.skipChildren();
+        return Double.NaN;
+    }
+    
+    private static Quote toQuote(String symbol, double price, double previousClose, double dayHigh,
+                                 double dayLow, long volume, String source) {
+        if (Double.isNaN(price)) {
+            return null;
+        }
+        double prevClose = Double.isNaN(previousClose) ? price : previousClose;
+        return Quote.of(symbol, price, prevClose,
+                Double.isNaN(dayHigh) ? price * 1.02 : dayHigh,
+                Double.isNaN(dayLow) ? price * 0.98 : dayLow,
+                volume >= 0 ? volume : 1000000L,
+                source);
+    }
+}
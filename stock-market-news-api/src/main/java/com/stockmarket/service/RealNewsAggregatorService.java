@@ -1,13 +1,27 @@
 package com.stockmarket.service;
 
+import com.stockmarket.config.ProviderRestTemplates;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.regex.Pattern;
-import java.util.regex.Matcher;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
@@ -15,155 +29,158 @@ import java.time.format.DateTimeFormatter;
 public class RealNewsAggregatorService {
     
     private static final Logger logger = LoggerFactory.getLogger(RealNewsAggregatorService.class);
-    private final RestTemplate restTemplate;
+    private static final Pattern HTML_TAG = Pattern.compile("<[^>]+>");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private final RestTemplate newsApiRestTemplate;
     
-    public RealNewsAggregatorService() {
-        this.restTemplate = new RestTemplate();
-    }
+    @Autowired
+    private EntityLinker entityLinker;
     
-    public List<Map<String, Object>> fetchRealNews() {
-        logger.info("🔍 Fetching real news from actual Indian financial news platforms");
-        
-        List<Map<String, Object>> allNews = new ArrayList<>();
-        
-        // Fetch from multiple real RSS feeds
-        allNews.addAll(fetchMoneyControlRSS());
-        allNews.addAll(fetchEconomicTimesRSS());
-        allNews.addAll(fetchBusinessStandardRSS());
-        allNews.addAll(fetchLiveMintRSS());
-        
-        // If RSS fails, use NewsAPI as backup
-        if (allNews.isEmpty()) {
-            logger.warn("⚠️ RSS feeds failed, trying NewsAPI");
-            allNews.addAll(fetchFromNewsAPI());
-        }
-        
-        // Process and clean the news
-        allNews = processAndFilterNews(allNews);
-        
-        logger.info("📰 Successfully fetched {} real news articles from platforms", allNews.size());
-        return allNews;
+    @Autowired
+    private HeadlineClassifier headlineClassifier;
+    
+    @Autowired
+    private Environment environment;
+    
+    @Autowired
+    private FeedFetcher feedFetcher;
+    
+    @Autowired
+    private RssFeedParser rssFeedParser;
+    
+    @Autowired
+    private MoneyControlRSSParser moneyControlRSSParser;
+    
+    @Autowired
+    @Qualifier("newsFeedExecutor")
+    private ExecutorService feedExecutor;
+    
+    // Feeds are fetched concurrently: each has its own deadline and the whole fan-out shares one budget
+    @Value("${news.fanout.feed-deadline:3s}")
+    private Duration defaultFeedDeadline;
+    
+    @Value("${news.fanout.budget:4s}")
+    private Duration fanOutBudget;
+    
+    // Per-host cap on concurrent feed downloads, so many feeds on one site never hammer it
+    @Value("${news.scheduler.per-host-concurrency:2}")
+    private int perHostConcurrency;
+    
+    private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+    
+    public RealNewsAggregatorService(ProviderRestTemplates restTemplates) {
+        this.newsApiRestTemplate = restTemplates.forProvider("newsapi");
     }
     
-    private List<Map<String, Object>> fetchMoneyControlRSS() {
-        try {
-            logger.debug("📡 Fetching from MoneyControl RSS feed");
-            
-            // MoneyControl's actual RSS feed for market reports
-            String rssUrl = "https://www.moneycontrol.com/rss/marketreports.xml";
-            String rssContent = restTemplate.getForObject(rssUrl, String.class);
-            
-            if (rssContent != null) {
-                return parseRSSContent(rssContent, "MoneyControl", "https://www.moneycontrol.com");
+    // Fetches the feeds in parallel and returns processed articles per feed key, or null for a feed that failed
+    // or missed its deadline. Feeds whose host is already at its concurrency limit are left out and stay due.
+    public Map<String, List<Map<String, Object>>> fetchFeeds(List<FeedDefinition> feeds) {
+        long startNanos = System.nanoTime();
+        long budgetDeadline = startNanos + fanOutBudget.toNanos();
+        
+        Map<FeedDefinition, CompletableFuture<List<Map<String, Object>>>> inFlight = new LinkedHashMap<>();
+        for (FeedDefinition feed : feeds) {
+            Semaphore permits = hostPermits.computeIfAbsent(feed.host(), host -> new Semaphore(perHostConcurrency));
+            if (!permits.tryAcquire()) {
+                logger.debug("🚦 {} deferred, {} is at its concurrency limit", feed.key(), feed.host());
+                continue;
             }
-            
-        } catch (Exception e) {
-            logger.debug("⚠️ MoneyControl RSS failed: {}", e.getMessage());
+            // The permit goes back when the download on the feed executor really ends, so a fetch cancelled at its
+            // deadline still counts against its host until it has stopped; whichever side claims the fetch first
+            // releases it, which covers a fetch cancelled before it ever started
+            AtomicBoolean claimed = new AtomicBoolean();
+            CompletableFuture<List<Map<String, Object>>> future;
+            try {
+                future = MarketDataProvider.supplyInterruptibly(() -> {
+                    if (!claimed.compareAndSet(false, true)) {
+                        return null;
+                    }
+                    try {
+                        return fetchFeed(feed);
+                    } finally {
+                        permits.release();
+                    }
+                }, feedExecutor);
+            } catch (RejectedExecutionException e) {
+                permits.release();
+                logger.debug("⚠️ {} feed rejected: {}", feed.key(), e.getMessage());
+                continue;
+            }
+            future.whenComplete((items, error) -> {
+                if (claimed.compareAndSet(false, true)) {
+                    permits.release();
+                }
+            });
+            inFlight.put(feed, future);
         }
         
-        return new ArrayList<>();
-    }
-    
-    private List<Map<String, Object>> fetchEconomicTimesRSS() {
-        try {
-            logger.debug("📡 Fetching from Economic Times RSS feed");
+        Map<String, List<Map<String, Object>>> results = new LinkedHashMap<>();
+        for (Map.Entry<FeedDefinition, CompletableFuture<List<Map<String, Object>>>> entry : inFlight.entrySet()) {
+            String feed = entry.getKey().key();
+            CompletableFuture<List<Map<String, Object>>> future = entry.getValue();
             
-            // Economic Times actual RSS feed for markets
-            String rssUrl = "https://economictimes.indiatimes.com/markets/rssfeeds/1977021501.cms";
-            String rssContent = restTemplate.getForObject(rssUrl, String.class);
+            // All feeds started together, so each deadline is measured from the start of the fan-out
+            Duration feedDeadline = environment.getProperty("news.fanout.feeds." + feed + ".deadline", Duration.class, defaultFeedDeadline);
+            long deadline = Math.min(startNanos + feedDeadline.toNanos(), budgetDeadline);
             
-            if (rssContent != null) {
-                return parseRSSContent(rssContent, "Economic Times", "https://economictimes.indiatimes.com");
+            List<Map<String, Object>> items = null;
+            try {
+                items = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                logger.debug("⏱️ {} feed missed its deadline", feed);
+            } catch (ExecutionException e) {
+                logger.debug("⚠️ {} feed failed: {}", feed, e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.cancel(true);
             }
-            
-        } catch (Exception e) {
-            logger.debug("⚠️ Economic Times RSS failed: {}", e.getMessage());
+            results.put(feed, items);
         }
         
-        return new ArrayList<>();
+        logger.debug("📡 Fetched {} feeds in {} ms", inFlight.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        return results;
     }
     
-    private List<Map<String, Object>> fetchBusinessStandardRSS() {
-        try {
-            logger.debug("📡 Fetching from Business Standard RSS feed");
-            
-            // Business Standard actual RSS feed for markets
-            String rssUrl = "https://www.business-standard.com/rss/markets-106.rss";
-            String rssContent = restTemplate.getForObject(rssUrl, String.class);
-            
-            if (rssContent != null) {
-                return parseRSSContent(rssContent, "Business Standard", "https://www.business-standard.com");
-            }
-            
-        } catch (Exception e) {
-            logger.debug("⚠️ Business Standard RSS failed: {}", e.getMessage());
-        }
-        
-        return new ArrayList<>();
+    // NewsAPI as backup when no feed has produced anything yet
+    public List<Map<String, Object>> fetchBackupNews() {
+        return processAndFilterNews(fetchFromNewsAPI());
     }
     
-    private List<Map<String, Object>> fetchLiveMintRSS() {
-        try {
-            logger.debug("📡 Fetching from LiveMint RSS feed");
-            
-            // LiveMint actual RSS feed for markets
-            String rssUrl = "https://www.livemint.com/rss/markets";
-            String rssContent = restTemplate.getForObject(rssUrl, String.class);
-            
-            if (rssContent != null) {
-                return parseRSSContent(rssContent, "LiveMint", "https://www.livemint.com");
-            }
-            
-        } catch (Exception e) {
-            logger.debug("⚠️ LiveMint RSS failed: {}", e.getMessage());
-        }
-        
-        return new ArrayList<>();
+    private List<Map<String, Object>> fetchFeed(FeedDefinition feed) {
+        logger.debug("📡 Fetching {} feed", feed.source());
+        List<Map<String, Object>> items = feedFetcher.fetch(feed.url(), (body, charset) -> toNewsItems(
+            "moneycontrol".equals(feed.parser()) ? moneyControlRSSParser.parse(body) : rssFeedParser.parse(body), feed.source()));
+        return items != null ? processAndFilterNews(items) : List.of();
     }
     
-    private List<Map<String, Object>> parseRSSContent(String rssContent, String sourceName, String baseUrl) {
+    private List<Map<String, Object>> toNewsItems(List<FeedArticle> articles, String sourceName) {
         List<Map<String, Object>> newsItems = new ArrayList<>();
-        
-        try {
-            // Parse RSS XML using regex (in production, use proper XML parser like DOM/SAX)
-            Pattern itemPattern = Pattern.compile("<item>(.*?)</item>", Pattern.DOTALL);
-            Pattern titlePattern = Pattern.compile("<title><!\\[CDATA\\[(.*?)\\]\\]></title>|<title>(.*?)</title>", Pattern.DOTALL);
-            Pattern linkPattern = Pattern.compile("<link>(.*?)</link>", Pattern.DOTALL);
-            Pattern descPattern = Pattern.compile("<description><!\\[CDATA\\[(.*?)\\]\\]></description>|<description>(.*?)</description>", Pattern.DOTALL);
-            Pattern pubDatePattern = Pattern.compile("<pubDate>(.*?)</pubDate>", Pattern.DOTALL);
-            
-            Matcher itemMatcher = itemPattern.matcher(rssContent);
-            int count = 0;
-            
-            while (itemMatcher.find() && count < 5) {
-                String itemContent = itemMatcher.group(1);
-                
-                String title = extractWithPattern(titlePattern, itemContent);
-                String link = extractWithPattern(linkPattern, itemContent);
-                String description = extractWithPattern(descPattern, itemContent);
-                String pubDate = extractWithPattern(pubDatePattern, itemContent);
-                
-                if (title != null && link != null && isStockRelated(title)) {
-                    Map<String, Object> newsItem = new HashMap<>();
-                    newsItem.put("id", sourceName.toLowerCase().replace(" ", "") + "-" + count);
-                    newsItem.put("symbol", extractSymbolFromTitle(title));
-                    newsItem.put("headline", cleanText(title));
-                    newsItem.put("sentiment", analyzeSentiment(title + " " + (description != null ? description : "")));
-                    newsItem.put("source", sourceName);
-                    newsItem.put("url", cleanURL(link)); // Clean real article URL from RSS
-                    newsItem.put("description", description != null ? cleanText(description).substring(0, Math.min(cleanText(description).length(), 150)) + "..." : "");
-                    newsItem.put("publishedAt", pubDate);
-                    newsItem.put("timestamp", System.currentTimeMillis());
-                    
-                    newsItems.add(newsItem);
-                    count++;
-                    
-                    logger.debug("📰 Parsed real news: {} from {}", title, sourceName);
-                }
+        String idPrefix = sourceName.toLowerCase().replace(" ", "") + "-";
+        
+        for (FeedArticle article : articles) {
+            String title = cleanText(article.title());
+            String description = article.description() != null ? cleanText(article.description()) : null;
+            HeadlineClassification classification = headlineClassifier.classify(title, description);
+            if (!classification.stockRelated() || classification.excluded()) {
+                continue;
             }
             
-        } catch (Exception e) {
-            logger.warn("⚠️ Error parsing RSS from {}: {}", sourceName, e.getMessage());
+            Map<String, Object> newsItem = new HashMap<>();
+            newsItem.put("id", idPrefix + newsItems.size());
+            List<LinkedEntity> entities = entityLinker.link(title, description);
+            newsItem.put("symbol", primarySymbol(entities, classification));
+            newsItem.put("symbols", toSymbolList(entities));
+            newsItem.put("headline", title);
+            newsItem.put("sentiment", classification.sentiment());
+            newsItem.put("source", sourceName);
+            newsItem.put("url", article.link()); // Real article URL from the feed
+            newsItem.put("description", description != null ? description.substring(0, Math.min(description.length(), 150)) + "..." : "");
+            newsItem.put("publishedAt", article.publishedAt());
+            newsItem.put("timestamp", System.currentTimeMillis());
+            
+            newsItems.add(newsItem);
+            logger.debug("📰 Parsed real news: {} from {}", title, sourceName);
         }
         
         return newsItems;
@@ -176,7 +193,7 @@ public class RealNewsAggregatorService {
             // NewsAPI for Indian business news (free tier)
             String url = "https://newsapi.org/v2/top-headlines?country=in&category=business&pageSize=10";
             
-            Map<String, Object> response = restTemplate.getForObject(url, Map.class);
+            Map<String, Object> response = newsApiRestTemplate.getForObject(url, Map.class);
             
             if (response != null && response.containsKey("articles")) {
                 List<Map<String, Object>> articles = (List<Map<String, Object>>) response.get("articles");
@@ -203,12 +220,18 @@ public class RealNewsAggregatorService {
             String sourceName = source != null ? (String) source.get("name") : "NewsAPI";
             String publishedAt = (String) article.get("publishedAt");
             
-            if (title != null && url != null && isStockRelated(title)) {
+            if (title == null || url == null) {
+                continue;
+            }
+            HeadlineClassification classification = headlineClassifier.classify(title, description);
+            if (classification.stockRelated() && !classification.excluded()) {
+                List<LinkedEntity> entities = entityLinker.link(title, description);
                 Map<String, Object> newsItem = Map.of(
                     "id", "newsapi-" + i,
-                    "symbol", extractSymbolFromTitle(title),
+                    "symbol", primarySymbol(entities, classification),
+                    "symbols", toSymbolList(entities),
                     "headline", title,
-                    "sentiment", analyzeSentiment(title + " " + (description != null ? description : "")),
+                    "sentiment", classification.sentiment(),
                     "source", sourceName,
                     "url", url, // Real article URL from NewsAPI
                     "description", description != null ? description.substring(0, Math.min(description.length(), 150)) + "..." : "",
@@ -224,119 +247,30 @@ public class RealNewsAggregatorService {
         return processedNews;
     }
     
-    private String extractWithPattern(Pattern pattern, String content) {
-        Matcher matcher = pattern.matcher(content);
-        if (matcher.find()) {
-            // Try CDATA first, then regular content
-            String cdataContent = matcher.group(1);
-            if (cdataContent != null && !cdataContent.trim().isEmpty()) {
-                return cdataContent.trim();
-            }
-            if (matcher.groupCount() > 1) {
-                String regularContent = matcher.group(2);
-                if (regularContent != null && !regularContent.trim().isEmpty()) {
-                    return regularContent.trim();
-                }
-            }
-        }
-        return null;
-    }
-    
     private String cleanText(String text) {
         if (text == null) return "";
         
-        // Remove HTML tags and clean up text
-        return text.replaceAll("<[^>]+>", "")
-                  .replaceAll("&amp;", "&")
-                  .replaceAll("&lt;", "<")
-                  .replaceAll("&gt;", ">")
-                  .replaceAll("&quot;", "\"")
-                  .replaceAll("&#39;", "'")
-                  .replaceAll("\\s+", " ")
-                  .trim();
+        // Remove HTML tags and decode entities left in escaped HTML descriptions (&amp; last, so it is decoded once)
+        String stripped = HTML_TAG.matcher(text).replaceAll("")
+                  .replace("&lt;", "<")
+                  .replace("&gt;", ">")
+                  .replace("&quot;", "\"")
+                  .replace("&#39;", "'")
+                  .replace("&amp;", "&");
+        return WHITESPACE.matcher(stripped).replaceAll(" ").trim();
     }
     
-    private String cleanURL(String url) {
-        if (url == null) return "";
-        
-        // Clean URL by removing CDATA tags and other XML artifacts
-        return url.replaceAll("<!\\[CDATA\\[", "")
-                  .replaceAll("\\]\\]>", "")
-                  .replaceAll("<[^>]+>", "")
-                  .replaceAll("&amp;", "&")
-                  .replaceAll("&lt;", "<")
-                  .replaceAll("&gt;", ">")
-                  .trim();
+    // The most confident linked company, else whatever index or ticker the classifier saw
+    private String primarySymbol(List<LinkedEntity> entities, HeadlineClassification classification) {
+        return !entities.isEmpty() ? entities.get(0).symbol() : classification.primarySymbol();
     }
     
-    private boolean isStockRelated(String title) {
-        if (title == null) return false;
-        
-        String titleLower = title.toLowerCase();
-        String[] stockKeywords = {
-            "stock", "market", "nifty", "sensex", "share", "equity", "trading", "investment",
-            "reliance", "tcs", "hdfc", "infosys", "bharti", "adani", "itc", "wipro",
-            "bse", "nse", "ipo", "earnings", "dividend", "fii", "dii", "mutual fund",
-            "rupee", "banking", "finance", "corporate", "quarterly", "results"
-        };
-        
-        for (String keyword : stockKeywords) {
-            if (titleLower.contains(keyword)) {
-                return true;
-            }
+    private List<Map<String, Object>> toSymbolList(List<LinkedEntity> entities) {
+        List<Map<String, Object>> symbols = new ArrayList<>(entities.size());
+        for (LinkedEntity entity : entities) {
+            symbols.add(Map.of("symbol", entity.symbol(), "confidence", Math.round(entity.confidence() * 100) / 100.0));
         }
-        
-        return false;
-    }
-    
-    private String extractSymbolFromTitle(String title) {
-        if (title == null) return "MARKET";
-        
-        String titleUpper = title.toUpperCase();
-        String[] symbols = {"RELIANCE", "TCS", "HDFC", "INFOSYS", "INFY", "BHARTI", "ADANI", "ITC", "WIPRO"};
-        
-        for (String symbol : symbols) {
-            if (titleUpper.contains(symbol)) {
-                return symbol;
-            }
-        }
-        
-        // Check for market indices
-        if (titleUpper.contains("NIFTY")) return "NIFTY50";
-        if (titleUpper.contains("SENSEX")) return "SENSEX";
-        
-        return "MARKET";
-    }
-    
-    private String analyzeSentiment(String text) {
-        if (text == null) return "neutral";
-        
-        String textLower = text.toLowerCase();
-        
-        String[] positiveWords = {
-            "gain", "rise", "up", "high", "strong", "beat", "win", "growth", "positive",
-            "surge", "rally", "boost", "jump", "soar", "climb", "advance", "outperform"
-        };
-        
-        String[] negativeWords = {
-            "fall", "drop", "down", "low", "weak", "miss", "loss", "decline", "negative",
-            "plunge", "crash", "slump", "tumble", "slide", "retreat", "underperform"
-        };
-        
-        int positiveScore = 0;
-        int negativeScore = 0;
-        
-        for (String word : positiveWords) {
-            if (textLower.contains(word)) positiveScore++;
-        }
-        
-        for (String word : negativeWords) {
-            if (textLower.contains(word)) negativeScore++;
-        }
-        
-        if (positiveScore > negativeScore) return "positive";
-        if (negativeScore > positiveScore) return "negative";
-        return "neutral";
+        return symbols;
     }
     
     private List<Map<String, Object>> processAndFilterNews(List<Map<String, Object>> allNews) {
@@ -354,29 +288,18 @@ public class RealNewsAggregatorService {
             }
         }
         
-        // Sort by timestamp (most recent first) and limit to 8 items
+        // Sort by timestamp (most recent first); the news store applies its own retention limits
         uniqueNews.sort((a, b) -> {
             Long timeA = (Long) a.getOrDefault("timestamp", 0L);
             Long timeB = (Long) b.getOrDefault("timestamp", 0L);
             return timeB.compareTo(timeA);
         });
         
-        return uniqueNews.subList(0, Math.min(uniqueNews.size(), 8));
+        return uniqueNews;
     }
     
+    // Excluded headlines are already dropped when the articles are classified
     private boolean isQualityNews(String headline) {
-        if (headline == null || headline.length() < 20) return false;
-        
-        // Filter out low-quality headlines
-        String headlineLower = headline.toLowerCase();
-        String[] excludeKeywords = {"click here", "watch video", "breaking:", "live:", "advertisement"};
-        
-        for (String exclude : excludeKeywords) {
-            if (headlineLower.contains(exclude)) {
-                return false;
-            }
-        }
-        
-        return true;
+        return headline != null && headline.length() >= 20;
     }
 }
\ No newline at end of file
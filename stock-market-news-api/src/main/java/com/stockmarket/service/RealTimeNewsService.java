@@ -1,6 +1,5 @@
 package com.stockmarket.service;
 
-import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
@@ -11,8 +10,10 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
+import com.stockmarket.config.ProviderRestTemplates;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
@@ -24,16 +25,18 @@ public class RealTimeNewsService {
     
     // Cache for news data
     private final Map<String, List<Map<String, Object>>> newsCache = new ConcurrentHashMap<>();
-    private LocalDateTime lastFetchTime = LocalDateTime.MIN;
-    private static final Duration CACHE_DURATION = Duration.ofSeconds(1); // 1-second cache to force refresh
+    private volatile long lastFetchTime = 0L;
+
+    // Cache TTL follows the NSE session: short while trading, long once the market is closed
+    @Autowired
+    private MarketSessionService marketSessionService;
     
-    // Stock symbols to track
-    private static final String[] INDIAN_STOCKS = {
-        "RELIANCE", "TCS", "HDFCBANK", "INFY", "ITC", "BHARTIARTL", "ADANIGREEN"
-    };
+    // Relevance, symbols and sentiment from the shared keyword automaton
+    @Autowired
+    private HeadlineClassifier headlineClassifier;
     
-    public RealTimeNewsService() {
-        this.restTemplate = new RestTemplate();
+    public RealTimeNewsService(ProviderRestTemplates restTemplates) {
+        this.restTemplate = restTemplates.forProvider("newsapi");
     }
     
     public List<Map<String, Object>> getLatestStockNews() {
@@ -65,7 +68,7 @@ public class RealTimeNewsService {
         
         // Cache the results
         newsCache.put("latest", allNews);
-        lastFetchTime = LocalDateTime.now();
+        lastFetchTime = System.currentTimeMillis();
         
         return allNews;
     }
@@ -163,12 +166,13 @@ public class RealTimeNewsService {
             String url = (String) article.get("url");
             String source = "NewsAPI";
             
-            if (title != null && isStockRelated(title)) {
+            HeadlineClassification classification = title != null ? headlineClassifier.classify(title) : null;
+            if (classification != null && classification.stockRelated()) {
                 Map<String, Object> newsItem = Map.of(
                     "id", "newsapi-" + i,
-                    "symbol", extractSymbolFromTitle(title),
+                    "symbol", classification.primarySymbol(),
                     "headline", title,
-                    "sentiment", analyzeSentiment(title),
+                    "sentiment", classification.sentiment(),
                     "source", source,
                     "url", url != null ? url : "https://newsapi.org",
                     "timestamp", System.currentTimeMillis()
@@ -273,78 +277,12 @@ public class RealTimeNewsService {
         return uniqueNews.subList(0, Math.min(uniqueNews.size(), 7));
     }
     
-    private boolean isStockRelated(String title) {
-        String titleLower = title.toLowerCase();
-        String[] keywords = {"stock", "market", "nifty", "sensex", "share", "equity", "trading", "investment"};
-        
-        for (String keyword : keywords) {
-            if (titleLower.contains(keyword)) {
-                return true;
-            }
-        }
-        
-        for (String stock : INDIAN_STOCKS) {
-            if (titleLower.contains(stock.toLowerCase())) {
-                return true;
-            }
-        }
-        
-        return false;
-    }
-    
-    private String extractSymbolFromTitle(String title) {
-        String titleUpper = title.toUpperCase();
-        
-        for (String stock : INDIAN_STOCKS) {
-            if (titleUpper.contains(stock)) {
-                return stock;
-            }
-        }
-        
-        // Check for market indices
-        if (titleUpper.contains("NIFTY")) return "NIFTY50";
-        if (titleUpper.contains("SENSEX")) return "SENSEX";
-        
-        return "MARKET";
-    }
-    
-    private String analyzeSentiment(String title) {
-        String titleLower = title.toLowerCase();
-        
-        String[] positiveWords = {"gain", "rise", "up", "high", "strong", "beat", "win", "growth", "positive"};
-        String[] negativeWords = {"fall", "drop", "down", "low", "weak", "miss", "loss", "decline", "negative"};
-        
-        int positiveScore = 0;
-        int negativeScore = 0;
-        
-        for (String word : positiveWords) {
-            if (titleLower.contains(word)) positiveScore++;
-        }
-        
-        for (String word : negativeWords) {
-            if (titleLower.contains(word)) negativeScore++;
-        }
-        
-        if (positiveScore > negativeScore) return "positive";
-        if (negativeScore > positiveScore) return "negative";
-        return "neutral";
-    }
-    
     private boolean isMarketHours() {
-        LocalDateTime now = LocalDateTime.now();
-        int hour = now.getHour();
-        int minute = now.getMinute();
-        
-        // Indian market hours: 9:15 AM to 3:30 PM
-        int currentMinutes = hour * 60 + minute;
-        int marketOpen = 9 * 60 + 15;  // 9:15 AM
-        int marketClose = 15 * 60 + 30; // 3:30 PM
-        
-        return currentMinutes >= marketOpen && currentMinutes <= marketClose;
+        return marketSessionService.getCurrentSession() == MarketSessionService.Session.REGULAR;
     }
     
     private boolean isDataFresh() {
-        return Duration.between(lastFetchTime, LocalDateTime.now()).compareTo(CACHE_DURATION) < 0;
+        return marketSessionService.isNewsFresh(lastFetchTime);
     }
     
 
@@ -0,0 +1,206 @@
+package com.stockmarket.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Streaming StAX parser for RSS 2.0, RSS 1.0 (RDF) and Atom feeds; reads items straight off the response stream
+@Component
+public class RssFeedParser {
+
+    private static final Logger logger = LoggerFactory.getLogger(RssFeedParser.class);
+
+    private static final String ATOM_NS = "http://www.w3.org/2005/Atom";
+    private static final String RSS1_NS = "http://purl.org/rss/1.0/";
+    private static final String DUBLIN_CORE_NS = "http://purl.org/dc/elements/1.1/";
+
+    // Item fields are only read from these namespaces, so media:title, itunes:summary and friends are ignored
+    private static final Set<String> FEED_NAMESPACES = Set.of("", ATOM_NS, RSS1_NS);
+
+    // HTML entities feeds use without declaring them; with DTDs off they surface as entity references
+    private static final Map<String, String> HTML_ENTITIES = Map.of(
+        "nbsp", " ", "ndash", "–", "mdash", "—", "hellip", "…",
+        "lsquo", "‘", "rsquo", "’", "ldquo", "“", "rdquo", "”", "rupee", "₹");
+
+    private final XMLInputFactory inputFactory;
+
+    @Value("${news.parser.max-items:30}")
+    private int defaultMaxItems;
+
+    public RssFeedParser() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        // Feeds are untrusted input: no DTDs or external entities
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        // Undeclared HTML entities are reported instead of failing the feed; readText joins the text runs
+        // itself, since coalescing would turn those references back into parse errors
+        factory.setProperty(XMLInputFactory.IS_REPLACING_ENTITY_REFERENCES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+        this.inputFactory = factory;
+    }
+
+    public List<FeedArticle> parse(InputStream body) {
+        return parse(body, defaultMaxItems);
+    }
+
+    // Stops reading once maxItems articles are emitted; a malformed tail keeps the articles read before it
+    public List<FeedArticle> parse(InputStream body, int maxItems) {
+        List<FeedArticle> articles = new ArrayList<>();
+        XMLStreamReader reader = null;
+        try {
+            // The XML declaration, not the HTTP header, decides the encoding
+            reader = inputFactory.createXMLStreamReader(body);
+            while (reader.hasNext() && articles.size() < maxItems) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT && isItemStart(reader)) {
+                    FeedArticle article = readItem(reader);
+                    if (article.title() != null && article.link() != null) {
+                        articles.add(article);
+                    }
+                }
+            }
+        } catch (XMLStreamException e) {
+            logger.debug("⚠️ Feed parsing stopped after {} items: {}", articles.size(), e.getMessage());
+        } finally {
+            close(reader);
+        }
+        return articles;
+    }
+
+    private boolean isItemStart(XMLStreamReader reader) {
+        String name = reader.getLocalName();
+        return ("item".equals(name) || "entry".equals(name)) && FEED_NAMESPACES.contains(namespaceOf(reader));
+    }
+
+    private FeedArticle readItem(XMLStreamReader reader) throws XMLStreamException {
+        String title = null;
+        String link = null;
+        String description = null;
+        String content = null;
+        String published = null;
+        String updated = null;
+        boolean alternateLink = false;
+
+        // Positioned on the item start tag; every child is consumed whole, so the next end tag closes the item
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                break;
+            }
+            if (event != XMLStreamConstants.START_ELEMENT) {
+                continue;
+            }
+
+            String name = reader.getLocalName();
+            String namespace = namespaceOf(reader);
+            if (DUBLIN_CORE_NS.equals(namespace) && "date".equals(name)) {
+                published = readText(reader);
+                continue;
+            }
+            if (!FEED_NAMESPACES.contains(namespace)) {
+                skipElement(reader);
+                continue;
+            }
+
+            switch (name) {
+                case "title" -> title = readText(reader);
+                case "link" -> {
+                    // Atom links carry the URL in href; prefer rel="alternate" (or no rel) over self/enclosure links
+                    String href = reader.getAttributeValue(null, "href");
+                    String rel = reader.getAttributeValue(null, "rel");
+                    String text = readText(reader);
+                    if (href == null) {
+                        if (text != null) {
+                            link = text;
+                            alternateLink = true;
+                        }
+                    } else if (rel == null || "alternate".equals(rel)) {
+                        link = href;
+                        alternateLink = true;
+                    } else if (!alternateLink && link == null) {
+                        link = href;
+                    }
+                }
+                case "description", "summary" -> description = readText(reader);
+                case "content" -> content = readText(reader);
+                case "pubDate", "published" -> published = readText(reader);
+                case "updated" -> updated = readText(reader);
+                default -> skipElement(reader);
+            }
+        }
+
+        return new FeedArticle(title, link,
+            description != null ? description : content,
+            published != null ? published : updated);
+    }
+
+    // Text of the current element including any nested markup (e.g. Atom xhtml content), trimmed; ends on its end tag
+    private String readText(XMLStreamReader reader) throws XMLStreamException {
+        StringBuilder text = null;
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            switch (event) {
+                case XMLStreamConstants.START_ELEMENT -> depth++;
+                case XMLStreamConstants.END_ELEMENT -> depth--;
+                case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA, XMLStreamConstants.SPACE -> {
+                    if (text == null) {
+                        text = new StringBuilder(reader.getTextLength());
+                    }
+                    text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                }
+                case XMLStreamConstants.ENTITY_REFERENCE -> {
+                    if (text == null) {
+                        text = new StringBuilder();
+                    }
+                    text.append(HTML_ENTITIES.getOrDefault(reader.getLocalName(), ""));
+                }
+                default -> {
+                }
+            }
+        }
+        if (text == null) {
+            return null;
+        }
+        String value = text.toString().trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    private String namespaceOf(XMLStreamReader reader) {
+        String namespace = reader.getNamespaceURI();
+        return namespace != null ? namespace : "";
+    }
+
+    private void close(XMLStreamReader reader) {
+        if (reader == null) {
+            return;
+        }
+        try {
+            reader.close();
+        } catch (XMLStreamException e) {
+            logger.debug("⚠️ Could not close feed reader: {}", e.getMessage());
+        }
+    }
+}
@@ -1,10 +1,13 @@
 package com.stockmarket.service;
 
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
+import com.stockmarket.config.ProviderRestTemplates;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -28,30 +31,135 @@ public class StockNewsService {
     @Autowired
     private RealNewsAggregatorService realNewsAggregatorService;
     
+    @Autowired
+    private ApiRateLimiter rateLimiter;
+    
+    @Autowired
+    private SymbolMaster symbolMaster;
+    
+    @Autowired
+    private NewsStore newsStore;
+    
+    @Autowired
+    private FeedScheduler feedScheduler;
+    
+    @Autowired
+    private MarketSessionService marketSessionService;
+    
+    private volatile long lastFallbackRefresh = 0L;
+    
+    @Value("${news.store.page-size:20}")
+    private int pageSize;
+    
+    @Value("${news.search.max-results:100}")
+    private int maxSearchResults;
+    
+    @Value("${marketdata.watchlist:RELIANCE,HDFCBANK,TCS,INFY,BHARTIARTL,ADANIGREEN,ITC}")
+    private List<String> watchlist;
+    
     @Value("${alphavantage.api.key:demo}")
     private String apiKey;
     
     private static final String ALPHA_VANTAGE_NEWS_URL = 
         "https://www.alphavantage.co/query?function=NEWS_SENTIMENT&tickers={tickers}&apikey={apikey}";
     
-    public StockNewsService() {
-        this.restTemplate = new RestTemplate();
+    public StockNewsService(ProviderRestTemplates restTemplates) {
+        this.restTemplate = restTemplates.forProvider("alphavantage");
     }
     
+    // Served straight from the news store; all fetching happens in the ingestion poller
     public List<Map<String, Object>> getStockNews() {
-        logger.debug("🔍 Fetching latest stock news from real news platforms");
+        if (!newsStore.isEmpty()) {
+            return newsStore.latest(pageSize);
+        }
+        List<Map<String, Object>> fallback = newsStore.getFallback();
+        return !fallback.isEmpty() ? fallback : getFallbackNews();
+    }
+    
+    // Per-symbol view of the store; accepts anything the symbol master resolves (symbol, ISIN, provider ticker)
+    public List<Map<String, Object>> getStockNews(String symbol) {
+        SymbolInfo info = symbolMaster.resolve(symbol);
+        if (info == null) {
+            throw new UnknownSymbolException(symbol, "Symbol not found in the equity master");
+        }
+        return newsStore.latestForSymbol(info.symbol(), pageSize);
+    }
+    
+    // Free-text and filtered search over the stored stories; from/to accept ISO-8601 date-times or epoch millis
+    public NewsSearchResult searchNews(String text, String symbol, String source, String sentiment,
+                                       String from, String to, Integer limit) {
+        String resolvedSymbol = null;
+        if (symbol != null && !symbol.isBlank()) {
+            SymbolInfo info = symbolMaster.resolve(symbol);
+            if (info == null) {
+                throw new UnknownSymbolException(symbol, "Symbol not found in the equity master");
+            }
+            resolvedSymbol = info.symbol();
+        }
+        if (sentiment != null && !sentiment.isBlank() && !List.of("positive", "negative", "neutral").contains(sentiment.toLowerCase())) {
+            throw new IllegalArgumentException("sentiment must be positive, negative or neutral");
+        }
+        if (text != null && !text.isBlank() && !NewsSearchIndex.hasSearchableWords(text)) {
+            throw new IllegalArgumentException("q must contain at least one word that is not a stop word");
+        }
+        int pageLimit = limit != null ? Math.max(1, Math.min(limit, maxSearchResults)) : pageSize;
         
-        // First try real news aggregator (RSS feeds from MoneyControl, ET, etc.)
+        NewsSearchQuery query = new NewsSearchQuery(blankToNull(text), resolvedSymbol, blankToNull(source),
+            blankToNull(sentiment), parseTime(from, "from"), parseTime(to, "to"), pageLimit);
+        return newsStore.search(query);
+    }
+    
+    private String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+    
+    private Long parseTime(String value, String name) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String trimmed = value.trim();
+        try {
+            if (trimmed.chars().allMatch(Character::isDigit)) {
+                return Long.parseLong(trimmed);
+            }
+            return OffsetDateTime.parse(trimmed).toInstant().toEpochMilli();
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException(name + " must be an ISO-8601 date-time or epoch millis");
+        }
+    }
+    
+    public void ingestLatestNews() {
+        // Registered feeds that are due feed the store; each feed runs on its own learned cadence
         try {
-            List<Map<String, Object>> realNews = realNewsAggregatorService.fetchRealNews();
-            if (realNews != null && !realNews.isEmpty()) {
-                logger.info("📰 Successfully fetched {} real news articles from platforms", realNews.size());
-                return realNews;
+            int added = feedScheduler.pollDueFeeds();
+            if (added > 0) {
+                logger.info("📰 Ingested {} new real news articles from platforms", added);
             }
         } catch (Exception e) {
-            logger.warn("⚠️ Real news aggregator failed: {}, trying news scraping", e.getMessage());
+            logger.warn("⚠️ Feed polling failed: {}", e.getMessage());
+        }
+        if (!newsStore.isEmpty()) {
+            return;
         }
         
+        // Until the first real article arrives, try NewsAPI and keep a generated fallback warm
+        if (marketSessionService.isNewsFresh(lastFallbackRefresh)) {
+            return;
+        }
+        lastFallbackRefresh = System.currentTimeMillis();
+        try {
+            List<Map<String, Object>> backupNews = realNewsAggregatorService.fetchBackupNews();
+            if (!backupNews.isEmpty()) {
+                newsStore.merge(backupNews);
+                return;
+            }
+        } catch (Exception e) {
+            logger.warn("⚠️ NewsAPI backup failed: {}, trying news scraping", e.getMessage());
+        }
+        newsStore.replaceFallback(fetchFallbackNews());
+    }
+    
+    private List<Map<String, Object>> fetchFallbackNews() {
         // Fallback to actual news scraping
         try {
             List<Map<String, Object>> scrapedNews = actualNewsScrapingService.scrapeLatestNews();
@@ -74,10 +182,14 @@ public class StockNewsService {
             logger.warn("⚠️ Real-time news service failed: {}, trying Alpha Vantage fallback", e.getMessage());
         }
         
-        // Fallback to Alpha Vantage API
+        // Fallback to Alpha Vantage API (shares the key's quota with the quote services)
+        if (!rateLimiter.tryAcquire("alphavantage", apiKey, ApiRateLimiter.Priority.LOW)) {
+            logger.debug("🚦 Alpha Vantage quota exhausted, using fallback news");
+            return getFallbackNews();
+        }
         try {
             // Focus on Indian market and global factors affecting India
-            String tickers = "RELIANCE.BSE,TCS.BSE,INFY.BSE,HDFCBANK.BSE,ITC.BSE";
+            String tickers = String.join(",", watchlist.stream().map(symbolMaster::alphaVantageTicker).toList());
             
             Map<String, Object> response = restTemplate.getForObject(
                 ALPHA_VANTAGE_NEWS_URL, 
@@ -0,0 +1,26 @@
+package com.stockmarket.service;
+
+import java.util.List;
+
+// One row of the equity master; id is the compact index assigned at load time
+public record SymbolInfo(
+    int id,
+    String symbol,
+    String isin,
+    String name,
+    String sector,
+    int lotSize,
+    String yahooTicker,
+    String alphaVantageTicker,
+    String twelveDataTicker,
+    double referencePrice,
+    long averageVolume,
+    List<String> aliases,
+    List<String> commonWords
+) {
+
+    // Whether this surface (symbol or alias) is also an ordinary word, so its case and context decide a match
+    public boolean isCommonWord(String surface) {
+        return commonWords.contains(surface);
+    }
+}
@@ -0,0 +1,196 @@
+package com.stockmarket.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+// Equity master loaded from a CSV at startup; resolves symbols, ISINs and provider tickers in constant time
+@Service
+public class SymbolMaster {
+    
+    private static final Logger logger = LoggerFactory.getLogger(SymbolMaster.class);
+    
+    @Value("${marketdata.symbol-master.location:classpath:data/equity-master.csv}")
+    private Resource masterFile;
+    
+    private List<SymbolInfo> symbolsById = List.of();
+    private Map<String, SymbolInfo> bySymbol = Map.of();
+    private Map<String, SymbolInfo> byKey = Map.of();
+    
+    @PostConstruct
+    void load() throws IOException {
+        List<SymbolInfo> symbols = new ArrayList<>();
+        Map<String, SymbolInfo> symbolIndex = new HashMap<>();
+        Map<String, SymbolInfo> keyIndex = new HashMap<>();
+        
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(masterFile.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            boolean header = true;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                if (header) {
+                    header = false;
+                    continue;
+                }
+                
+                List<String> columns = splitRow(line);
+                if (columns.size() < 11) {
+                    logger.warn("⚠️ Skipping malformed equity master row: {}", line);
+                    continue;
+                }
+                String symbol = columns.get(0).trim().toUpperCase();
+                if (symbolIndex.containsKey(symbol)) {
+                    logger.warn("⚠️ Duplicate equity master symbol {}, keeping the first row", symbol);
+                    continue;
+                }
+                
+                List<String> aliases = new ArrayList<>();
+                for (String alias : columns.get(10).split("\\|")) {
+                    if (!alias.isBlank()) {
+                        aliases.add(alias.trim().toUpperCase());
+                    }
+                }
+                // The common_words column is optional so older master copies keep loading
+                List<String> commonWords = new ArrayList<>();
+                if (columns.size() > 11) {
+                    for (String word : columns.get(11).split("\\|")) {
+                        if (!word.isBlank()) {
+                            commonWords.add(word.trim().toUpperCase());
+                        }
+                    }
+                }
+                SymbolInfo info;
+                try {
+                    info = new SymbolInfo(symbols.size(), symbol, columns.get(1).trim(), columns.get(2).trim(),
+                        columns.get(3).trim(), parseInt(columns.get(4)), columns.get(5).trim(), columns.get(6).trim(),
+                        columns.get(7).trim(), parseDouble(columns.get(8)), parseLong(columns.get(9)), List.copyOf(aliases),
+                        List.copyOf(commonWords));
+                } catch (NumberFormatException e) {
+                    // One bad lot size or price must not take the whole universe down at startup
+                    logger.warn("⚠️ Skipping equity master row for {} with a malformed number ({}): {}", symbol, e.getMessage(), line);
+                    continue;
+                }
+                
+                symbols.add(info);
+                symbolIndex.put(symbol, info);
+                for (String key : List.of(symbol, info.isin(), info.yahooTicker(), info.alphaVantageTicker(), info.twelveDataTicker())) {
+                    if (!key.isEmpty()) {
+                        keyIndex.putIfAbsent(key.toUpperCase(), info);
+                    }
+                }
+            }
+        }
+        
+        this.symbolsById = List.copyOf(symbols);
+        this.bySymbol = symbolIndex;
+        this.byKey = keyIndex;
+        logger.info("📇 Loaded {} symbols from equity master {}", symbols.size(), masterFile.getDescription());
+    }
+    
+    public SymbolInfo get(String symbol) {
+        return symbol != null ? bySymbol.get(symbol) : null;
+    }
+    
+    public SymbolInfo get(int id) {
+        return id >= 0 && id < symbolsById.size() ? symbolsById.get(id) : null;
+    }
+    
+    // Accepts a symbol, ISIN or any provider ticker, case-insensitively
+    public SymbolInfo resolve(String key) {
+        if (key == null) {
+            return null;
+        }
+        SymbolInfo info = bySymbol.get(key);
+        return info != null ? info : byKey.get(key.trim().toUpperCase());
+    }
+    
+    public boolean contains(String symbol) {
+        return get(symbol) != null;
+    }
+    
+    public List<SymbolInfo> getAll() {
+        return symbolsById;
+    }
+    
+    public int size() {
+        return symbolsById.size();
+    }
+    
+    // Unknown symbols keep the previous convention of listing on NSE
+    public String yahooTicker(String symbol) {
+        SymbolInfo info = get(symbol);
+        return info != null ? info.yahooTicker() : symbol + ".NS";
+    }
+    
+    public String alphaVantageTicker(String symbol) {
+        SymbolInfo info = get(symbol);
+        return info != null ? info.alphaVantageTicker() : symbol + ".BSE";
+    }
+    
+    public String twelveDataTicker(String symbol) {
+        SymbolInfo info = get(symbol);
+        return info != null ? info.twelveDataTicker() : symbol + ".NS";
+    }
+    
+    public double referencePrice(String symbol) {
+        SymbolInfo info = get(symbol);
+        return info != null ? info.referencePrice() : 1000.0;
+    }
+    
+    public long averageVolume(String symbol) {
+        SymbolInfo info = get(symbol);
+        return info != null ? info.averageVolume() : 1000000L;
+    }
+    
+    // Comma-separated columns; a double-quoted column may contain commas, and "" inside it is a literal quote
+    private static List<String> splitRow(String line) {
+        List<String> columns = new ArrayList<>();
+        StringBuilder column = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    column.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    column.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                columns.add(column.toString());
+                column.setLength(0);
+            } else {
+                column.append(c);
+            }
+        }
+        columns.add(column.toString());
+        return columns;
+    }
+    
+    private static int parseInt(String value) {
+        return value.isBlank() ? 0 : Integer.parseInt(value.trim());
+    }
+    
+    private static long parseLong(String value) {
+        return value.isBlank() ? 0L : Long.parseLong(value.trim());
+    }
+    
+    private static double parseDouble(String value) {
+        return value.isBlank() ? 0.0 : Double.parseDouble(value.trim());
+    }
+}
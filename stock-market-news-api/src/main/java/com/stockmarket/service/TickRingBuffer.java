@@ -0,0 +1,114 @@
+package com.stockmarket.service;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Fixed-capacity tick history for one symbol. Appends claim a slot with an atomic fetch-and-add and publish it
+// with a per-slot sequence, so writers never lock (they only wait for a writer a full lap behind) and readers
+// skip slots that are mid-write or overwritten.
+public class TickRingBuffer {
+    
+    private final int capacity;
+    private final int mask;
+    private final long[] timestamps;
+    private final double[] prices;
+    private final long[] volumes;
+    private final AtomicLongArray published;
+    private final AtomicLong head = new AtomicLong();
+    
+    public TickRingBuffer(int requestedCapacity) {
+        this.capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+        this.mask = capacity - 1;
+        this.timestamps = new long[capacity];
+        this.prices = new double[capacity];
+        this.volumes = new long[capacity];
+        this.published = new AtomicLongArray(capacity);
+    }
+    
+    public int capacity() {
+        return capacity;
+    }
+    
+    public void append(long timestamp, double price, long cumulativeVolume) {
+        long sequence = head.getAndIncrement();
+        int slot = (int) (sequence & mask);
+        // A writer that laps the ring waits for the previous lap's writer of this slot to publish, then marks the
+        // slot as being rewritten; the CAS means two writers never fill the same slot at once
+        long previousLap = sequence < capacity ? 0L : sequence - capacity + 1;
+        while (!published.compareAndSet(slot, previousLap, -1L)) {
+            Thread.onSpinWait();
+        }
+        // Keeps the data writes below the marker
+        VarHandle.storeStoreFence();
+        timestamps[slot] = timestamp;
+        prices[slot] = price;
+        volumes[slot] = cumulativeVolume;
+        published.setRelease(slot, sequence + 1);
+    }
+    
+    // Copies the retained ticks, oldest first, keeping only those at or after sinceMillis
+    public TickSnapshot snapshot(long sinceMillis) {
+        long end = head.get();
+        long start = Math.max(0, end - capacity);
+        int length = (int) (end - start);
+        long[] snapshotTimestamps = new long[length];
+        double[] snapshotPrices = new double[length];
+        long[] snapshotVolumes = new long[length];
+        
+        int count = 0;
+        for (long sequence = start; sequence < end; sequence++) {
+            int slot = (int) (sequence & mask);
+            if (published.getAcquire(slot) != sequence + 1) {
+                continue;
+            }
+            long timestamp = timestamps[slot];
+            double price = prices[slot];
+            long volume = volumes[slot];
+            // Keeps the data reads above the recheck, so a torn tick is always rejected
+            VarHandle.loadLoadFence();
+            if (published.getAcquire(slot) != sequence + 1 || timestamp < sinceMillis) {
+                continue;
+            }
+            snapshotTimestamps[count] = timestamp;
+            snapshotPrices[count] = price;
+            snapshotVolumes[count] = volume;
+            count++;
+        }
+        return new TickSnapshot(count, snapshotTimestamps, snapshotPrices, snapshotVolumes);
+    }
+    
+    // Arrays may be longer than size; only the first size entries are valid
+    public record TickSnapshot(int size, long[] timestamps, double[] prices, long[] cumulativeVolumes) {
+        
+        // Volume-weighted average price from per-tick volume deltas; NaN until two ticks with traded volume exist
+        public double vwap() {
+            double notional = 0.0;
+            long traded = 0L;
+            for (int i = 1; i < size; i++) {
+                long delta = cumulativeVolumes[i] - cumulativeVolumes[i - 1];
+                if (delta > 0) {
+                    notional += prices[i] * delta;
+                    traded += delta;
+                }
+            }
+            return traded > 0 ? notional / traded : Double.NaN;
+        }
+        
+        public double high() {
+            double high = Double.NaN;
+            for (int i = 0; i < size; i++) {
+                high = Double.isNaN(high) ? prices[i] : Math.max(high, prices[i]);
+            }
+            return high;
+        }
+        
+        public double low() {
+            double low = Double.NaN;
+            for (int i = 0; i < size; i++) {
+                low = Double.isNaN(low) ? prices[i] : Math.min(low, prices[i]);
+            }
+            return low;
+        }
+    }
+}
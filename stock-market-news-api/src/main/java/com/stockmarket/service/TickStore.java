@@ -0,0 +1,42 @@
+package com.stockmarket.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Intraday tick history per symbol, fed from the quote ingestion path; memory is bounded per symbol
+@Component
+public class TickStore {
+    
+    @Autowired
+    private MarketSessionService marketSessionService;
+    
+    @Value("${marketdata.ticks.capacity:2048}")
+    private int capacityPerSymbol;
+    
+    private final Map<String, TickRingBuffer> buffers = new ConcurrentHashMap<>();
+    
+    // Only real provider quotes are recorded; mock volumes would corrupt VWAP
+    public void record(Quote quote) {
+        if (!quote.isRealTime()) {
+            return;
+        }
+        buffers.computeIfAbsent(quote.symbol(), symbol -> new TickRingBuffer(capacityPerSymbol))
+            .append(quote.timestamp(), quote.currentPrice(), quote.volume());
+    }
+    
+    public TickRingBuffer.TickSnapshot today(String symbol) {
+        TickRingBuffer buffer = buffers.get(symbol);
+        if (buffer == null) {
+            return new TickRingBuffer.TickSnapshot(0, new long[0], new double[0], new long[0]);
+        }
+        return buffer.snapshot(marketSessionService.getTradingDayStartMillis());
+    }
+    
+    public double getVwap(String symbol) {
+        return today(symbol).vwap();
+    }
+}
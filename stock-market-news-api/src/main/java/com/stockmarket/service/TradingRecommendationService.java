@@ -1,13 +1,16 @@
 package com.stockmarket.service;
 
+import com.stockmarket.config.ProviderRestTemplates;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.client.ResourceAccessException;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class TradingRecommendationService {
@@ -18,32 +21,48 @@ public class TradingRecommendationService {
     @Value("${alphavantage.api.key:demo}")
     private String apiKey;
     
+    @Autowired
+    private ApiRateLimiter rateLimiter;
+    
+    @Autowired
+    private SymbolMaster symbolMaster;
+    
+    @Value("${marketdata.recommendations.trading:RELIANCE,TCS,HDFCBANK,INFY,ITC}")
+    private List<String> symbols;
+    
+    // Last good recommendation per symbol, served when the Alpha Vantage quota is exhausted
+    private final Map<String, Map<String, Object>> lastRecommendations = new ConcurrentHashMap<>();
+    
     private static final String ALPHA_VANTAGE_QUOTE_URL = 
         "https://www.alphavantage.co/query?function=GLOBAL_QUOTE&symbol={symbol}&apikey={apikey}";
     
     private static final String ALPHA_VANTAGE_DAILY_URL = 
         "https://www.alphavantage.co/query?function=TIME_SERIES_DAILY&symbol={symbol}&apikey={apikey}";
     
-    public TradingRecommendationService() {
-        this.restTemplate = new RestTemplate();
+    public TradingRecommendationService(ProviderRestTemplates restTemplates) {
+        this.restTemplate = restTemplates.forProvider("alphavantage");
     }
     
     public List<Map<String, Object>> getIntradayRecommendations() {
         logger.debug("💡 Generating trading recommendations based on real market data");
         
-        String[] symbols = {"RELIANCE.BSE", "TCS.BSE", "HDFCBANK.BSE", "INFY.BSE", "ITC.BSE"};
         List<Map<String, Object>> recommendations = new ArrayList<>();
         
         for (String symbol : symbols) {
             try {
-                Map<String, Object> recommendation = generateRecommendation(symbol);
+                // Alpha Vantage free tier allows 5 calls per minute; without a token, degrade to the cached result
+                Map<String, Object> recommendation = rateLimiter.tryAcquire("alphavantage", apiKey, ApiRateLimiter.Priority.NORMAL)
+                    ? generateRecommendation(symbol)
+                    : null;
+                if (recommendation != null) {
+                    lastRecommendations.put(symbol, recommendation);
+                } else {
+                    recommendation = lastRecommendations.get(symbol);
+                }
                 if (recommendation != null) {
                     recommendations.add(recommendation);
                 }
                 
-                // Rate limiting - Alpha Vantage free tier allows 5 calls per minute
-                Thread.sleep(1000);
-                
             } catch (Exception e) {
                 logger.warn("⚠️ Failed to get data for {}: {}", symbol, e.getMessage());
                 // Continue with other symbols
@@ -68,7 +87,7 @@ public class TradingRecommendationService {
             Map<String, Object> quoteResponse = restTemplate.getForObject(
                 ALPHA_VANTAGE_QUOTE_URL, 
                 Map.class, 
-                symbol, 
+                symbolMaster.alphaVantageTicker(symbol), 
                 apiKey
             );
             
@@ -0,0 +1,103 @@
+package com.stockmarket.service;
+
+import com.stockmarket.config.ProviderRestTemplates;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+// Twelve Data quote endpoint (free tier: 8 calls/minute, 800/day), one symbol per call
+@Component
+public class TwelveDataProvider implements MarketDataProvider {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TwelveDataProvider.class);
+    
+    private final RestTemplate restTemplate;
+    
+    @Autowired
+    @Qualifier("marketDataProviderExecutor")
+    private ExecutorService executor;
+    
+    @Autowired
+    private SymbolMaster symbolMaster;
+    
+    @Autowired
+    private ApiRateLimiter rateLimiter;
+    
+    // Note: Get free API key from https://twelvedata.com/
+    @Value("${twelvedata.api.key:demo}")
+    private String apiKey;
+    
+    @Value("${ratelimit.providers.twelvedata.per-minute:8}")
+    private int requestsPerMinute;
+    
+    @Value("${ratelimit.providers.twelvedata.per-day:800}")
+    private int requestsPerDay;
+    
+    @Value("${marketdata.providers.twelvedata.priority:30}")
+    private int priority;
+    
+    @Value("${marketdata.providers.twelvedata.enabled:true}")
+    private boolean enabled;
+    
+    public TwelveDataProvider(ProviderRestTemplates restTemplates) {
+        this.restTemplate = restTemplates.forProvider("twelvedata");
+    }
+    
+    @Override
+    public String getKey() {
+        return "twelvedata";
+    }
+    
+    @Override
+    public String getName() {
+        return "Twelve Data";
+    }
+    
+    @Override
+    public int getPriority() {
+        return priority;
+    }
+    
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    @Override
+    public ProviderCapabilities getCapabilities() {
+        return new ProviderCapabilities(1, requestsPerMinute, requestsPerDay, ProviderCapabilities.FULL_QUOTE_FIELDS);
+    }
+    
+    // Quota is tracked per API key
+    @Override
+    public CompletableFuture<Boolean> acquirePermit(ApiRateLimiter.Priority priority, Duration maxWait) {
+        if (maxWait.isZero()) {
+            return CompletableFuture.completedFuture(rateLimiter.tryAcquire(getKey(), apiKey, priority));
+        }
+        return rateLimiter.acquire(getKey(), apiKey, priority, maxWait);
+    }
+    
+    @Override
+    public CompletableFuture<Quote> fetchQuote(String symbol) {
+        return MarketDataProvider.supplyInterruptibly(() -> {
+            logger.debug("📡 Trying Twelve Data API for {}", symbol);
+            
+            String url = String.format(
+                "https://api.twelvedata.com/quote?symbol=%s&apikey=%s",
+                symbolMaster.twelveDataTicker(symbol), apiKey
+            );
+            
+            return restTemplate.execute(url, HttpMethod.GET, null,
+                response -> QuoteResponseParser.parseTwelveDataQuote(response.getBody(), symbol));
+        }, executor);
+    }
+}
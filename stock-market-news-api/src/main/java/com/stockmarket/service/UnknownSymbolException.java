@@ -0,0 +1,18 @@
+package com.stockmarket.service;
+
+// Thrown for symbols that are malformed or that no provider could price recently
+public class UnknownSymbolException extends RuntimeException {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private final String symbol;
+    
+    public UnknownSymbolException(String symbol, String message) {
+        super(message);
+        this.symbol = symbol;
+    }
+    
+    public String getSymbol() {
+        return symbol;
+    }
+}
@@ -0,0 +1,102 @@
+package com.stockmarket.service;
+
+import com.stockmarket.config.ProviderRestTemplates;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+// Yahoo Finance: free, no API key. Quotes come from the v8 chart endpoint one symbol at a time; the v7 multi-symbol
+// quote endpoint needs a session crumb and cookie and answers 401 without them, so this provider does not batch.
+@Component
+public class YahooFinanceProvider implements MarketDataProvider {
+    
+    private static final Logger logger = LoggerFactory.getLogger(YahooFinanceProvider.class);
+    
+    private static final ProviderCapabilities CAPABILITIES =
+        new ProviderCapabilities(1, 0, 0, ProviderCapabilities.FULL_QUOTE_FIELDS);
+    
+    private final RestTemplate restTemplate;
+    
+    @Autowired
+    @Qualifier("marketDataProviderExecutor")
+    private ExecutorService executor;
+    
+    @Autowired
+    private SymbolMaster symbolMaster;
+    
+    @Value("${marketdata.providers.yahoo.priority:10}")
+    private int priority;
+    
+    @Value("${marketdata.providers.yahoo.enabled:true}")
+    private boolean enabled;
+    
+    public YahooFinanceProvider(ProviderRestTemplates restTemplates) {
+        this.restTemplate = restTemplates.forProvider("yahoo");
+    }
+    
+    @Override
+    public String getKey() {
+        return "yahoo";
+    }
+    
+    @Override
+    public String getName() {
+        return "Yahoo Finance";
+    }
+    
+    @Override
+    public int getPriority() {
+        return priority;
+    }
+    
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    @Override
+    public ProviderCapabilities getCapabilities() {
+        return CAPABILITIES;
+    }
+    
+    @Override
+    public CompletableFuture<Quote> fetchQuote(String symbol) {
+        return MarketDataProvider.supplyInterruptibly(() -> fetchChart(symbol), executor);
+    }
+    
+    private Quote fetchChart(String symbol) {
+        String url = String.format("https://query1.finance.yahoo.com/v8/finance/chart/%s", symbolMaster.yahooTicker(symbol));
+        
+        logger.info("📡 CALLING Yahoo Finance API: {}", url);
+        
+        // Stream the chart response: only the meta block is read, indicator arrays are skipped
+        Quote quote = restTemplate.execute(url, HttpMethod.GET, yahooHeaders(),
+            response -> QuoteResponseParser.parseYahooChart(response.getBody(), symbol));
+        
+        if (quote != null) {
+            logger.info("✅ Yahoo Finance SUCCESS for {}: ₹{}", symbol, quote.currentPrice());
+        }
+        return quote;
+    }
+    
+    private RequestCallback yahooHeaders() {
+        // Add proper headers to avoid blocking
+        return request -> {
+            HttpHeaders headers = request.getHeaders();
+            headers.set("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/91.0.4472.124 Safari/537.36");
+            headers.set("Accept", "application/json");
+            headers.set("Accept-Language", "en-US,en;q=0.9");
+            headers.set("Cache-Control", "no-cache");
+        };
+    }
+}